@@ -0,0 +1,134 @@
+package student;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link BoardGame#equals(Object)} and {@link BoardGame#hashCode()} where they are hot:
+ * collecting loaded games into a HashSet, and adding and removing games in a {@link GameList}.
+ * The {@code reflection} benchmarks collect the same games keyed by the reflection based equals
+ * and hashCode BoardGame used before, as the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardGameBenchmark {
+    /** Fields the reflection based equals and hashCode left out. */
+    private static final List<String> EXCLUDED = List.of("minPlayers", "maxPlayers",
+            "maxPlayTime", "minPlayTime", "difficulty", "rank", "averageRating", "yearPublished",
+            "hash");
+
+    /** Number of games in the catalogue. */
+    @Param({"1000", "100000"})
+    private int size;
+
+    /** The games, in id order. */
+    private List<BoardGame> games;
+
+    /** Copies of the games, equal to them but not the same objects. */
+    private List<BoardGame> copies;
+
+    /** Loads the games. */
+    @Setup
+    public void setup() {
+        games = Catalogues.list(size);
+        copies = new ArrayList<>(games.size());
+        for (BoardGame game : games) {
+            copies.add(new BoardGame(game.getName(), game.getId(), game.getMinPlayers(),
+                    game.getMaxPlayers(), game.getMinPlayTime(), game.getMaxPlayTime(),
+                    game.getDifficulty(), game.getRank(), game.getRating(),
+                    game.getYearPublished()));
+        }
+    }
+
+    /**
+     * Collects the games into a set, as loading does, then looks each copy up.
+     *
+     * @return the set
+     */
+    @Benchmark
+    public Set<BoardGame> hashSet() {
+        Set<BoardGame> set = new HashSet<>();
+        set.addAll(games);
+        for (BoardGame copy : copies) {
+            set.contains(copy);
+        }
+        return set;
+    }
+
+    /**
+     * The same as {@link #hashSet()}, with the reflection based equals and hashCode.
+     *
+     * @return the set
+     */
+    @Benchmark
+    public Set<ReflectionKey> hashSetReflection() {
+        Set<ReflectionKey> set = new HashSet<>();
+        for (BoardGame game : games) {
+            set.add(new ReflectionKey(game));
+        }
+        for (BoardGame copy : copies) {
+            set.contains(new ReflectionKey(copy));
+        }
+        return set;
+    }
+
+    /**
+     * Adds every game to a list, then removes the first half by range.
+     *
+     * @return the list
+     */
+    @Benchmark
+    public GameList gameList() {
+        GameList list = new GameList();
+        list.addToList(IGameList.ADD_ALL, copies.stream());
+        list.removeFromList("1-" + size / 2);
+        return list;
+    }
+
+    /** A game compared with the reflection based equals and hashCode. */
+    static final class ReflectionKey {
+        /** The game. */
+        private final BoardGame game;
+
+        /**
+         * Constructor for the key.
+         *
+         * @param game the game
+         */
+        ReflectionKey(BoardGame game) {
+            this.game = game;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof ReflectionKey
+                    && EqualsBuilder.reflectionEquals(game, ((ReflectionKey) obj).game, EXCLUDED);
+        }
+
+        @Override
+        public int hashCode() {
+            return HashCodeBuilder.reflectionHashCode(game, EXCLUDED);
+        }
+    }
+}
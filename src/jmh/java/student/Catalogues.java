@@ -0,0 +1,63 @@
+package student;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Synthetic catalogues of a given size for the benchmarks, scaled from the bundled collection.
+ * <p>
+ * Catalogues up to the size of the bundled collection are its first games by id. Larger ones
+ * are made by {@link CatalogueGenerator} with its default seed, so every run measures the same
+ * games.
+ */
+final class Catalogues {
+    /** Location of the bundled collection, relative to the resources directory. */
+    static final String COLLECTION = "/collection.csv";
+
+    /** Catalogues already built, by size. */
+    private static final Map<Integer, List<BoardGame>> CACHE = new HashMap<>();
+
+    /** Private constructor, static helpers only. */
+    private Catalogues() {
+    }
+
+    /**
+     * Gets a catalogue of a given size, in a fixed order.
+     *
+     * @param size the number of games
+     * @return the games, sorted by id
+     */
+    static synchronized List<BoardGame> list(int size) {
+        return CACHE.computeIfAbsent(size, Catalogues::build);
+    }
+
+    /**
+     * Gets a catalogue of a given size as a set, as Planner takes it.
+     *
+     * @param size the number of games
+     * @return the games
+     */
+    static Set<BoardGame> set(int size) {
+        return new HashSet<>(list(size));
+    }
+
+    /**
+     * Builds a catalogue.
+     *
+     * @param size the number of games
+     * @return the games, sorted by id
+     */
+    private static List<BoardGame> build(int size) {
+        List<BoardGame> base = new ArrayList<>(GamesLoader.loadGamesFile(COLLECTION));
+        if (size > base.size()) {
+            return new CatalogueGenerator().stream(size).toList();
+        }
+        base.sort(Comparator.comparingInt(BoardGame::getId));
+        return new ArrayList<>(base.subList(0, size));
+    }
+}
@@ -0,0 +1,84 @@
+package student;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link GameList#addToList(String, java.util.stream.Stream)} and
+ * {@link GameList#removeFromList(String)} with ranges and names. Each call starts from a new list,
+ * so the cost of building it is included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameListBenchmark {
+    /** Number of games in the catalogue. */
+    @Param({"1000", "100000"})
+    private int size;
+
+    /** The games, sorted by name as the planner hands them out. */
+    private List<BoardGame> games;
+
+    /** Name of the last game, the worst case for a lookup by name. */
+    private String lastName;
+
+    /** Sorts the games. */
+    @Setup
+    public void setup() {
+        games = new Planner(Catalogues.set(size), 0).filter("").toList();
+        lastName = games.get(games.size() - 1).getName();
+    }
+
+    /**
+     * Adds the first 500 games by range.
+     *
+     * @return the list
+     */
+    @Benchmark
+    public GameList addRange() {
+        GameList list = new GameList();
+        list.addToList("1-500", games.stream());
+        return list;
+    }
+
+    /**
+     * Adds the last game by name.
+     *
+     * @return the list
+     */
+    @Benchmark
+    public GameList addByName() {
+        GameList list = new GameList();
+        list.addToList(lastName, games.stream());
+        return list;
+    }
+
+    /**
+     * Adds every game, then removes the first 250 by range and the last by name.
+     *
+     * @return the list
+     */
+    @Benchmark
+    public GameList addAllRemoveRange() {
+        GameList list = new GameList();
+        list.addToList(IGameList.ADD_ALL, games.stream());
+        list.removeFromList("1-250");
+        list.removeFromList(lastName);
+        return list;
+    }
+}
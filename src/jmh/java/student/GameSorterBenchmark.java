@@ -0,0 +1,66 @@
+package student;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures sorting a list of games with the {@link GameSorter} comparators.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameSorterBenchmark {
+    /** Number of games in the catalogue. */
+    @Param({"1000", "100000"})
+    private int size;
+
+    /** The column to sort on, every GameData column. */
+    @Param
+    private GameData sortOn;
+
+    /** The sort direction. */
+    @Param({"true", "false"})
+    private boolean ascending;
+
+    /** The games, in id order. */
+    private List<BoardGame> games;
+
+    /** The comparator under test. */
+    private Comparator<BoardGame> comparator;
+
+    /** Loads the games and builds the comparator. */
+    @Setup
+    public void setup() {
+        games = Catalogues.list(size);
+        comparator = GameSorter.sortFilteredGames(sortOn, ascending);
+    }
+
+    /**
+     * Sorts a copy of the games, the copy is part of the measured cost.
+     *
+     * @return the sorted copy
+     */
+    @Benchmark
+    public List<BoardGame> sort() {
+        List<BoardGame> copy = new ArrayList<>(games);
+        copy.sort(comparator);
+        return copy;
+    }
+}
@@ -0,0 +1,88 @@
+package student;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link GamesLoader#loadGamesFile(String)} on the bundled collection, and
+ * {@link GamesLoader#loadStore(Path)} on generated csv files of each catalogue size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GamesLoaderBenchmark {
+    /**
+     * A csv file written by {@link CatalogueGenerator} with its default seed, so every run loads
+     * the same games.
+     */
+    @State(Scope.Benchmark)
+    public static class GeneratedFile {
+        /** Number of games in the file. */
+        @Param({"1000", "100000", "1000000"})
+        private int size;
+
+        /** The file. */
+        private Path file;
+
+        /**
+         * Writes the file.
+         *
+         * @throws IOException if the file cannot be written
+         */
+        @Setup
+        public void setup() throws IOException {
+            file = Files.createTempFile("catalogue", ".csv");
+            new CatalogueGenerator().write(file, size);
+        }
+
+        /**
+         * Deletes the file.
+         *
+         * @throws IOException if the file cannot be deleted
+         */
+        @TearDown
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Loads the bundled collection.
+     *
+     * @return the games
+     */
+    @Benchmark
+    public Set<BoardGame> loadGamesFile() {
+        return GamesLoader.loadGamesFile(Catalogues.COLLECTION);
+    }
+
+    /**
+     * Loads a generated file into a store.
+     *
+     * @param generated the file
+     * @return the store
+     */
+    @Benchmark
+    public GameStore loadStore(GeneratedFile generated) {
+        return GamesLoader.loadStore(generated.file);
+    }
+}
@@ -0,0 +1,56 @@
+package student;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Planner#filter(String, GameData, boolean)} for representative filters, sorted
+ * by name. The result cache is disabled so every call evaluates the filter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlannerFilterBenchmark {
+    /** Number of games in the catalogue. */
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    /** The filter: single numeric, several numeric, name contains, and contains with numeric. */
+    @Param({"minPlayers>=2", "minPlayers>=2,maxPlayers<=5,maxPlaytime<=60", "name~=the",
+        "name~=a,rating>7"})
+    private String filter;
+
+    /** The planner under test. */
+    private Planner planner;
+
+    /** Builds the planner. */
+    @Setup
+    public void setup() {
+        planner = new Planner(Catalogues.set(size), 0);
+    }
+
+    /**
+     * Filters and collects the result.
+     *
+     * @return the matching games
+     */
+    @Benchmark
+    public List<BoardGame> filter() {
+        return planner.filter(filter, GameData.NAME, true).toList();
+    }
+}
@@ -0,0 +1,60 @@
+package student;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures sorting the whole catalogue through {@link Planner#filter(String, GameData, boolean)}
+ * on every GameData column, in both directions. The result cache is disabled so every call
+ * produces the sorted result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlannerSortBenchmark {
+    /** Number of games in the catalogue. */
+    @Param({"1000", "100000"})
+    private int size;
+
+    /** The column to sort on, every GameData column. */
+    @Param
+    private GameData sortOn;
+
+    /** The sort direction. */
+    @Param({"true", "false"})
+    private boolean ascending;
+
+    /** The planner under test. */
+    private Planner planner;
+
+    /** Builds the planner. */
+    @Setup
+    public void setup() {
+        planner = new Planner(Catalogues.set(size), 0);
+    }
+
+    /**
+     * Sorts every game and collects the result.
+     *
+     * @return the sorted games
+     */
+    @Benchmark
+    public List<BoardGame> sort() {
+        return planner.filter("", sortOn, ascending).toList();
+    }
+}
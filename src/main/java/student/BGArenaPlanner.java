@@ -1,5 +1,7 @@
 package student;
 
+import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * Main entry point for the program.
@@ -7,6 +9,8 @@ package student;
 public final class BGArenaPlanner {
     /** default location of collection - relative to the resources directory. */
     private static final String DEFAULT_COLLECTION = "/collection.csv";
+    /** option to serve the planner over HTTP instead of running the console. */
+    private static final String SERVER_OPTION = "--server";
 
     /** private constructor as static class. */
     private BGArenaPlanner() {
@@ -16,12 +20,50 @@ public final class BGArenaPlanner {
     /**
      * Main entry point for the program.
      * 
-     * @param args command line arguments - not used at this time.
+     * @param args command line arguments - optionally {@code --server} and then optionally a
+     *             port, to serve the planner over HTTP instead of running the console, then
+     *             optionally the path of a collection file to load instead of the bundled one,
+     *             then optionally the path of a snapshot file to start from and keep up to date
+     *             with it.
      */
     public static void main(String[] args) {
-        IPlanner planner = new Planner(GamesLoader.loadGamesFile(DEFAULT_COLLECTION));
-        IGameList list = new GameList();
-        ConsoleApp app = new ConsoleApp(list, planner);
+        int first = 0;
+        boolean serve = args.length > 0 && args[0].equals(SERVER_OPTION);
+        int port = PlannerServer.DEFAULT_PORT;
+        if (serve) {
+            first = 1;
+            if (args.length > 1 && args[1].matches("\\d+")) {
+                port = Integer.parseInt(args[1]);
+                first = 2;
+            }
+        }
+
+        GameStore store;
+        if (args.length > first + 1) {
+            store = GamesLoader.loadStore(Path.of(args[first]), Path.of(args[first + 1]));
+        } else if (args.length > first) {
+            store = GamesLoader.loadStore(Path.of(args[first]));
+        } else {
+            store = GamesLoader.loadStore(DEFAULT_COLLECTION);
+        }
+
+        if (serve) {
+            if (System.getProperty(PlannerServer.NO_DELAY_PROPERTY) == null) {
+                System.setProperty(PlannerServer.NO_DELAY_PROPERTY, "true");
+            }
+            try {
+                PlannerServer server = new PlannerServer(new PlannerService(store), port,
+                        PlannerServer.DEFAULT_MAX_REQUESTS);
+                server.start();
+                System.out.println("Serving " + store.size() + " games on port "
+                        + server.getPort());
+            } catch (IOException e) {
+                System.err.println("Error starting server: " + e.getMessage());
+            }
+            return;
+        }
+        PlannerSession session = new PlannerService(store).open();
+        ConsoleApp app = new ConsoleApp(session, session);
         app.start();
     }
 
@@ -2,6 +2,7 @@ package student;
 
 
 import java.util.List;
+import java.util.Objects;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
@@ -12,6 +13,14 @@ import org.apache.commons.lang3.builder.HashCodeBuilder;
  * through getters.
  */
 public class BoardGame {
+    /** Fields left out of equals and hashCode. */
+    private static final List<String> EXCLUDED_FIELDS = List.of("minPlayers", "maxPlayers",
+            "maxPlayTime", "minPlayTime", "difficulty", "rank", "averageRating", "yearPublished",
+            "hash");
+    /** Starting value of the hash code, as HashCodeBuilder uses. */
+    private static final int HASH_SEED = 17;
+    /** Multiplier of the hash code, as HashCodeBuilder uses. */
+    private static final int HASH_MULTIPLIER = 37;
     /** Name of the board game. */
     private final String name;
     /** Unique identifier of the board game. */
@@ -32,6 +41,8 @@ public class BoardGame {
     private final double averageRating;
     /** Year the game was published. */
     private final int yearPublished;
+    /** Hash code of the name and id, worked out once. */
+    private final int hash;
 
     /**
      * Constructor for the BoardGame object.
@@ -59,6 +70,7 @@ public class BoardGame {
         this.rank = rank;
         this.averageRating = averageRating;
         this.yearPublished = yearPublished;
+        this.hash = hash(name, id);
     }
 
     /**
@@ -209,14 +221,25 @@ public class BoardGame {
      * - minPlayers - maxPlayers - maxPlayTime - minPlayTime - difficulty - rank - averageRating -
      * yearPublished
      * 
+     * That leaves the name and id, which are compared directly. Subclasses may add fields, so
+     * they are still compared field by field through reflection.
+     * 
      * @param obj object to compare
      * @return true if the objects are equal, false otherwise
      */
     @Override
     public boolean equals(Object obj) {
-        return EqualsBuilder.reflectionEquals(this, obj, // exclude the following fields
-                List.of("minPlayers", "maxPlayers", "maxPlayTime", "minPlayTime", "difficulty",
-                        "rank", "averageRating", "yearPublished"));
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof BoardGame)) {
+            return false;
+        }
+        if (getClass() != BoardGame.class || obj.getClass() != BoardGame.class) {
+            return EqualsBuilder.reflectionEquals(this, obj, EXCLUDED_FIELDS);
+        }
+        BoardGame other = (BoardGame) obj;
+        return id == other.id && hash == other.hash && Objects.equals(name, other.name);
     }
 
     /**
@@ -225,15 +248,32 @@ public class BoardGame {
      * The hash code is based on all fields, except for the following: - minPlayers - maxPlayers -
      * maxPlayTime - minPlayTime - difficulty - rank - averageRating - yearPublished
      * 
+     * It is worked out once, when the game is created, and is the same value a reflection based
+     * HashCodeBuilder gives.
+     * 
      * @return hash code of the object
      */
     @Override
     public int hashCode() {
-        return HashCodeBuilder.reflectionHashCode(this, // exclude the following fields
-                List.of("minPlayers", "maxPlayers", "maxPlayTime", "minPlayTime", "difficulty",
-                        "rank", "averageRating", "yearPublished"));
+        if (getClass() != BoardGame.class) {
+            return HashCodeBuilder.reflectionHashCode(this, EXCLUDED_FIELDS);
+        }
+        return hash;
     }
 
+    /**
+     * Works out the hash code of a name and id as {@link HashCodeBuilder} does by reflection:
+     * starting from 17, each field in name order (id, then name) multiplies by 37 and adds the
+     * field's hash, 0 for a null name.
+     * 
+     * @param name the name
+     * @param id the id
+     * @return the hash code
+     */
+    private static int hash(String name, int id) {
+        int total = HASH_SEED * HASH_MULTIPLIER + id;
+        return total * HASH_MULTIPLIER + (name == null ? 0 : name.hashCode());
+    }
 
     /**
      * Simple main we used for testing.
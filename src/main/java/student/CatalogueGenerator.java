@@ -0,0 +1,308 @@
+package student;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Generates synthetic catalogues that look statistically like the bundled collection, for load
+ * and scale testing.
+ * <p>
+ * Each generated game starts from a game of the bundled collection picked at random, so the
+ * player counts, play times, difficulty, rating, rank and year keep their real distributions and
+ * the relations between them (a long game is usually a heavy one). The values are then jittered
+ * so games do not repeat exactly, and the name is made from words used in the real names. Ids
+ * are numbered from 1, so they are unique.
+ * <p>
+ * The same seed always gives the same games. Games are generated one at a time, and
+ * {@link #write(Writer, long)} streams them out as csv with the same header as the bundled
+ * collection, so catalogues of millions of games never need to fit in memory.
+ */
+public final class CatalogueGenerator {
+    /** Seed used when none is given. */
+    public static final long DEFAULT_SEED = 42L;
+    /** Location of the bundled collection, relative to the resources directory. */
+    private static final String COLLECTION = "/collection.csv";
+    /** Standard csv delim. */
+    private static final String DELIMITER = ",";
+
+    /** Random source, seeded. */
+    private final Random random;
+    /** The bundled games, in id order, that generated games are based on. */
+    private final List<BoardGame> samples;
+    /** Words used in the bundled names. */
+    private final String[] words;
+    /** The csv header, as in the bundled collection. */
+    private final String header;
+    /** Index in the header of each GameData column, by ordinal. */
+    private final int[] columnIndexes;
+    /** Number of columns in the header. */
+    private final int columnCount;
+    /** Latest year in the bundled collection, generated years do not go past it. */
+    private final int latestYear;
+    /** Id of the last game generated. */
+    private int lastId;
+
+    /**
+     * Constructor for a generator with the default seed.
+     */
+    public CatalogueGenerator() {
+        this(DEFAULT_SEED);
+    }
+
+    /**
+     * Constructor for a generator.
+     *
+     * @param seed the seed, the same seed always generates the same games
+     */
+    public CatalogueGenerator(long seed) {
+        this.random = new Random(seed);
+        this.header = readHeader();
+        this.samples = new ArrayList<>(GamesLoader.loadGamesFile(COLLECTION));
+        if (samples.isEmpty()) {
+            throw new IllegalStateException("Bundled collection is empty");
+        }
+        samples.sort(Comparator.comparingInt(BoardGame::getId));
+
+        Set<String> vocabulary = new LinkedHashSet<>();
+        int year = 0;
+        for (BoardGame game : samples) {
+            for (String word : game.getName().split("\\s+")) {
+                if (!word.isEmpty()) {
+                    vocabulary.add(word);
+                }
+            }
+            year = Math.max(year, game.getYearPublished());
+        }
+        this.words = vocabulary.toArray(new String[0]);
+        this.latestYear = year;
+
+        String[] columns = header.split(DELIMITER);
+        this.columnCount = columns.length;
+        this.columnIndexes = new int[GameData.values().length];
+        Arrays.fill(columnIndexes, -1);
+        for (int i = 0; i < columns.length; i++) {
+            for (GameData column : GameData.values()) {
+                if (column.getColumnName().equals(columns[i])) {
+                    columnIndexes[column.ordinal()] = i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Generates a catalogue as a csv file.
+     * <p>
+     * Usage: {@code CatalogueGenerator rows file [seed]}
+     *
+     * @param args the number of games, the file to write, and optionally the seed
+     * @throws IOException if the file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CatalogueGenerator rows file [seed]");
+            return;
+        }
+        long rows = Long.parseLong(args[0]);
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SEED;
+        new CatalogueGenerator(seed).write(Path.of(args[1]), rows);
+    }
+
+    /**
+     * Get the csv header the generator writes.
+     *
+     * @return the header, as in the bundled collection
+     */
+    public String getHeader() {
+        return header;
+    }
+
+    /**
+     * Generates the next game.
+     *
+     * @return the game
+     */
+    public BoardGame next() {
+        BoardGame base = samples.get(random.nextInt(samples.size()));
+        int id = ++lastId;
+
+        int minTime = jitterTime(base.getMinPlayTime());
+        int maxTime = Math.max(minTime, jitterTime(base.getMaxPlayTime()));
+        double difficulty = base.getDifficulty() == 0 ? 0
+                : clamp(base.getDifficulty() + random.nextGaussian() * 0.15, 1, 5);
+        double rating = base.getRating() == 0 ? 0
+                : clamp(base.getRating() + random.nextGaussian() * 0.25, 1, 10);
+        int rank = base.getRank() == 0 ? 0
+                : Math.max(1, (int) Math.round(base.getRank() * (1 + random.nextGaussian() * 0.1)));
+        int year = base.getYearPublished() == 0 ? 0
+                : Math.min(latestYear, base.getYearPublished() + random.nextInt(7) - 3);
+
+        return new BoardGame(nextName(), id, base.getMinPlayers(), base.getMaxPlayers(), minTime,
+                maxTime, round(difficulty), rank, round(rating), year);
+    }
+
+    /**
+     * Generates a number of games lazily, each one only when the stream pulls it.
+     *
+     * @param rows the number of games
+     * @return the games
+     */
+    public Stream<BoardGame> stream(long rows) {
+        return Stream.generate(this::next).limit(rows);
+    }
+
+    /**
+     * Writes a number of generated games as csv, header first.
+     *
+     * @param out where to write, not closed
+     * @param rows the number of games
+     * @throws IOException if writing fails
+     */
+    public void write(Writer out, long rows) throws IOException {
+        out.write(header);
+        out.write('\n');
+        String[] row = new String[columnCount];
+        StringBuilder line = new StringBuilder(128);
+        for (long i = 0; i < rows; i++) {
+            BoardGame game = next();
+            Arrays.fill(row, "");
+            set(row, GameData.NAME, game.getName());
+            set(row, GameData.ID, String.valueOf(game.getId()));
+            set(row, GameData.RATING, String.valueOf(game.getRating()));
+            set(row, GameData.DIFFICULTY, String.valueOf(game.getDifficulty()));
+            set(row, GameData.RANK, String.valueOf(game.getRank()));
+            set(row, GameData.MIN_PLAYERS, String.valueOf(game.getMinPlayers()));
+            set(row, GameData.MAX_PLAYERS, String.valueOf(game.getMaxPlayers()));
+            set(row, GameData.MIN_TIME, String.valueOf(game.getMinPlayTime()));
+            set(row, GameData.MAX_TIME, String.valueOf(game.getMaxPlayTime()));
+            set(row, GameData.YEAR, String.valueOf(game.getYearPublished()));
+            line.setLength(0);
+            for (int c = 0; c < row.length; c++) {
+                if (c > 0) {
+                    line.append(DELIMITER);
+                }
+                line.append(row[c]);
+            }
+            line.append('\n');
+            out.append(line);
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes a number of generated games to a csv file, replacing it if it exists.
+     *
+     * @param file the file to write
+     * @param rows the number of games
+     * @throws IOException if writing fails
+     */
+    public void write(Path file, long rows) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            write(out, rows);
+        }
+    }
+
+    /**
+     * Puts a value in its column of a row, if the header has the column.
+     *
+     * @param row the row
+     * @param column the column
+     * @param value the value
+     */
+    private void set(String[] row, GameData column, String value) {
+        int index = columnIndexes[column.ordinal()];
+        if (index >= 0) {
+            row[index] = value;
+        }
+    }
+
+    /**
+     * Makes a name of one to three words from the bundled names, sometimes with a subtitle.
+     *
+     * @return the name
+     */
+    private String nextName() {
+        StringBuilder name = new StringBuilder(words[random.nextInt(words.length)]);
+        int more = random.nextInt(3);
+        for (int i = 0; i < more; i++) {
+            name.append(' ').append(words[random.nextInt(words.length)]);
+        }
+        if (random.nextInt(10) < 2) {
+            name.append(": ").append(words[random.nextInt(words.length)]);
+        }
+        return name.toString();
+    }
+
+    /**
+     * Scales a play time by a random factor around 1, rounded to 5 minutes.
+     *
+     * @param minutes the play time
+     * @return the jittered play time
+     */
+    private int jitterTime(int minutes) {
+        if (minutes <= 0) {
+            return minutes;
+        }
+        double scaled = minutes * Math.exp(random.nextGaussian() * 0.2);
+        return Math.max(5, (int) Math.round(scaled / 5) * 5);
+    }
+
+    /**
+     * Limits a value to a range.
+     *
+     * @param value the value
+     * @param low the smallest allowed
+     * @param high the largest allowed
+     * @return the limited value
+     */
+    private static double clamp(double value, double low, double high) {
+        return Math.max(low, Math.min(high, value));
+    }
+
+    /**
+     * Rounds to 5 decimal places, as in the bundled collection.
+     *
+     * @param value the value
+     * @return the rounded value
+     */
+    private static double round(double value) {
+        return Math.round(value * 100_000) / 100_000.0;
+    }
+
+    /**
+     * Reads the header line of the bundled collection.
+     *
+     * @return the header
+     */
+    private static String readHeader() {
+        try (InputStream is = CatalogueGenerator.class.getResourceAsStream(COLLECTION)) {
+            if (is == null) {
+                throw new IllegalStateException("Bundled collection not found: " + COLLECTION);
+            }
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(is, StandardCharsets.UTF_8));
+            String header = reader.readLine();
+            if (header == null) {
+                throw new IllegalStateException("Bundled collection is empty");
+            }
+            return header;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
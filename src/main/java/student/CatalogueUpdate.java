@@ -0,0 +1,71 @@
+package student;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A batch of changes to a catalogue, applied all at once by
+ * {@link GameStore#apply(CatalogueUpdate)} or {@link Planner#apply(CatalogueUpdate)}.
+ * <p>
+ * Games are changed by id. An upsert replaces every game with the id by the new one, or adds it
+ * if there is none; a delete removes every game with the id. If a batch changes an id more than
+ * once, the last change wins.
+ */
+public final class CatalogueUpdate {
+    /** The change for each id, in the order first changed, null for a delete. */
+    private final Map<Integer, BoardGame> changes = new LinkedHashMap<>();
+
+    /**
+     * Adds a game, replacing every game with the same id.
+     *
+     * @param game the game
+     * @return this update
+     * @throws IllegalArgumentException if the game is null
+     */
+    public CatalogueUpdate upsert(BoardGame game) {
+        if (game == null) {
+            throw new IllegalArgumentException("Game cannot be null");
+        }
+        changes.put(game.getId(), game);
+        return this;
+    }
+
+    /**
+     * Removes every game with an id.
+     *
+     * @param id the id
+     * @return this update
+     */
+    public CatalogueUpdate delete(int id) {
+        changes.put(id, null);
+        return this;
+    }
+
+    /**
+     * Get the number of ids changed.
+     *
+     * @return the number of ids
+     */
+    public int size() {
+        return changes.size();
+    }
+
+    /**
+     * Whether the update changes nothing.
+     *
+     * @return true if no id is changed
+     */
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     * Get the changes.
+     *
+     * @return the new game for each changed id, in the order first changed, null if deleted
+     */
+    Map<Integer, BoardGame> changes() {
+        return Collections.unmodifiableMap(changes);
+    }
+}
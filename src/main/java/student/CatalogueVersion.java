@@ -0,0 +1,56 @@
+package student;
+
+/**
+ * One published version of the catalogue a {@link Planner} serves: an immutable game store and
+ * the number of the version.
+ * <p>
+ * Every read pins the current version once and works on it throughout, and every change
+ * publishes a whole new version, so readers never lock and never see a change half made. A
+ * version is an ordinary object, so it is reclaimed by the garbage collector once the planner
+ * has moved on and no reader or lazy result still holds it.
+ */
+public final class CatalogueVersion {
+    /** Number of the version, starting at 1 and one higher for each published change. */
+    private final long number;
+    /** The games of the version. */
+    private final GameStore store;
+
+    /**
+     * Constructor for a version.
+     *
+     * @param number the number of the version
+     * @param store the games of the version
+     */
+    CatalogueVersion(long number, GameStore store) {
+        this.number = number;
+        this.store = store;
+    }
+
+    /**
+     * Get the number of the version, higher for later versions of the same planner.
+     *
+     * @return the version number
+     */
+    public long getNumber() {
+        return number;
+    }
+
+    /**
+     * Get the games of the version.
+     *
+     * @return the game store
+     */
+    public GameStore getStore() {
+        return store;
+    }
+
+    /**
+     * Makes the version that follows this one.
+     *
+     * @param next the games of the next version
+     * @return the next version
+     */
+    CatalogueVersion next(GameStore next) {
+        return new CatalogueVersion(number + 1, next);
+    }
+}
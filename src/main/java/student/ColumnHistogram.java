@@ -0,0 +1,197 @@
+package student;
+
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Equi-width histogram of a numeric column, used to estimate how many rows a condition matches.
+ * <p>
+ * The range between the smallest and largest value is split into equal width buckets, and the
+ * number of rows falling into each bucket is counted. Estimates assume values are spread evenly
+ * within a bucket. NaN values are not counted and never match.
+ * <p>
+ * The histogram is built from the column's {@link SortIndex}, reading the column in place: the
+ * ends of the order give the smallest and largest value, and each bucket is one run of positions
+ * along it, so the counts take a binary search per bucket rather than a pass over every row.
+ */
+public final class ColumnHistogram {
+    /** Number of buckets used for each column. */
+    static final int BUCKETS = 64;
+
+    /** The column. */
+    private final GameData column;
+    /** Smallest value. */
+    private final double min;
+    /** Largest value. */
+    private final double max;
+    /** Width of each bucket. */
+    private final double width;
+    /** Number of rows in each bucket. */
+    private final int[] counts;
+    /** Number of non NaN rows. */
+    private final int total;
+
+    /**
+     * Constructor for the histogram.
+     *
+     * @param store the store holding the column
+     * @param column the numeric column
+     */
+    ColumnHistogram(GameStore store, GameData column) {
+        this.column = column;
+        SortIndex index = store.sortIndex(column);
+        IntToDoubleFunction value;
+        int end = index.size();
+        if (GameStore.isDoubleColumn(column)) {
+            double[] doubles = store.doubleColumn(column);
+            value = position -> doubles[index.rowAt(position)];
+            while (end > 0 && Double.isNaN(value.applyAsDouble(end - 1))) {
+                end--; // NaN sorts last
+            }
+        } else {
+            int[] ints = store.intColumn(column);
+            value = position -> ints[index.rowAt(position)];
+        }
+        this.total = end;
+        this.min = end == 0 ? 0 : value.applyAsDouble(0);
+        this.max = end == 0 ? 0 : value.applyAsDouble(end - 1);
+        this.width = (max - min) / BUCKETS;
+        this.counts = new int[BUCKETS];
+        // buckets never decrease along the sort order, so each one is a run found by binary search
+        int start = 0;
+        for (int bucket = 0; bucket < BUCKETS && start < end; bucket++) {
+            int low = start;
+            int high = end;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (bucketOf(value.applyAsDouble(mid)) <= bucket) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            counts[bucket] = low - start;
+            start = low;
+        }
+    }
+
+    /**
+     * Get the column the histogram is on.
+     *
+     * @return the column
+     */
+    public GameData getColumn() {
+        return column;
+    }
+
+    /**
+     * Get the smallest value in the column.
+     *
+     * @return the smallest value
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * Get the largest value in the column.
+     *
+     * @return the largest value
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Estimates the number of rows matching a condition on this column.
+     *
+     * @param condition the condition
+     * @return the estimated number of matching rows
+     */
+    public double estimate(FilterCondition condition) {
+        if (condition.matchesNothing() || total == 0) {
+            return 0;
+        }
+        double operand = GameStore.isDoubleColumn(column) ? condition.getDoubleOperand()
+                : condition.getIntOperand();
+        double rows;
+        switch (condition.getOperator()) {
+            case LESS_THAN:
+                rows = below(operand) - equal(operand) / 2;
+                break;
+            case LESS_THAN_EQUALS:
+                rows = below(operand) + equal(operand) / 2;
+                break;
+            case GREATER_THAN:
+                rows = total - below(operand) - equal(operand) / 2;
+                break;
+            case GREATER_THAN_EQUALS:
+                rows = total - below(operand) + equal(operand) / 2;
+                break;
+            case EQUALS:
+                rows = equal(operand);
+                break;
+            case NOT_EQUALS:
+                rows = total - equal(operand);
+                break;
+            default:
+                rows = total;
+        }
+        return Math.max(0, Math.min(total, rows));
+    }
+
+    /**
+     * Estimates the number of rows with a value below a point, counting half of the rows exactly
+     * at it.
+     *
+     * @param value the point
+     * @return the estimated number of rows
+     */
+    private double below(double value) {
+        if (value < min) {
+            return 0;
+        }
+        if (value > max) {
+            return total;
+        }
+        if (width == 0) {
+            return total / 2.0; // every value is equal to the point
+        }
+        int bucket = bucketOf(value);
+        double rows = 0;
+        for (int i = 0; i < bucket; i++) {
+            rows += counts[i];
+        }
+        double start = min + bucket * width;
+        return rows + counts[bucket] * Math.min(1, (value - start) / width);
+    }
+
+    /**
+     * Estimates the number of rows equal to a value.
+     *
+     * @param value the value
+     * @return the estimated number of rows
+     */
+    private double equal(double value) {
+        if (value < min || value > max) {
+            return 0;
+        }
+        if (width == 0) {
+            return total;
+        }
+        double span = GameStore.isDoubleColumn(column) ? 2 * FilterCompiler.DOUBLE_TOLERANCE : 1;
+        return counts[bucketOf(value)] * Math.min(1, span / width);
+    }
+
+    /**
+     * Finds the bucket a value falls in.
+     *
+     * @param value the value, between min and max
+     * @return the bucket
+     */
+    private int bucketOf(double value) {
+        if (width == 0) {
+            return 0;
+        }
+        return Math.max(0, Math.min(BUCKETS - 1, (int) ((value - min) / width)));
+    }
+}
@@ -0,0 +1,110 @@
+package student;
+
+import java.util.List;
+
+/**
+ * A filter string compiled into its conditions.
+ * <p>
+ * Commas between filters are treated as ANDs, so a game matches the compiled filter if it matches
+ * every condition. Conditions that could not be understood (unknown column, no operator) are
+ * dropped when compiling, the same way they were ignored when filtering from the raw string.
+ * <p>
+ * A compiled filter is immutable, and can be reused for as many filter calls as needed. The plan
+ * for running it against a store is kept with it, so reusing a compiled filter also skips
+ * planning.
+ */
+public final class CompiledFilter {
+    /** The conditions, in the order they appeared in the filter. */
+    private final List<FilterCondition> conditions;
+    /** True if any condition can never match. */
+    private final boolean matchesNothing;
+    /** The plan for the store the filter last ran against, kept so it is not planned again. */
+    private volatile FilterPlan plan;
+
+    /**
+     * Constructor for the compiled filter. Use {@link FilterCompiler#compile(String)} to build one.
+     *
+     * @param conditions the conditions of the filter
+     */
+    CompiledFilter(List<FilterCondition> conditions) {
+        this.conditions = List.copyOf(conditions);
+        this.matchesNothing = conditions.stream().anyMatch(FilterCondition::matchesNothing);
+    }
+
+    /**
+     * Get the conditions of the filter, in the order they appeared.
+     *
+     * @return unmodifiable list of conditions
+     */
+    public List<FilterCondition> getConditions() {
+        return conditions;
+    }
+
+    /**
+     * Whether the filter has no conditions, and so matches every game.
+     *
+     * @return true if there are no conditions
+     */
+    public boolean isEmpty() {
+        return conditions.isEmpty();
+    }
+
+    /**
+     * Whether the filter can never match a game.
+     *
+     * @return true if no game can match the filter
+     */
+    public boolean matchesNothing() {
+        return matchesNothing;
+    }
+
+    /**
+     * Get the plan for running the filter against a store, reusing the last plan if it was made
+     * for the same store.
+     * <p>
+     * Plans returned here are only executed, never recorded into, so they can be shared.
+     *
+     * @param store the store
+     * @return the plan
+     */
+    FilterPlan planFor(GameStore store) {
+        FilterPlan current = plan;
+        if (current == null || !current.isFor(store)) {
+            current = FilterPlan.plan(store, this);
+            plan = current;
+        }
+        return current;
+    }
+
+    /**
+     * Checks if a game matches every condition of the filter.
+     *
+     * @param game the game to check
+     * @return true if the game matches the filter
+     */
+    public boolean test(BoardGame game) {
+        for (int i = 0; i < conditions.size(); i++) {
+            if (!conditions.get(i).test(game)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get a string representation of the filter, with the conditions separated by commas.
+     *
+     * @return string representation of the filter
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (FilterCondition condition : conditions) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(condition);
+        }
+        return sb.toString();
+    }
+}
@@ -1,6 +1,6 @@
 package student;
 
-import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Properties;
 import java.util.Scanner;
@@ -21,6 +21,8 @@ public class ConsoleApp {
     private static final Scanner IN = new Scanner(System.in);
     /** Default name to save the game list to. */
     private static final String DEFAULT_FILENAME = "games_list.txt";
+    /** Most game names shown when completing a name. */
+    private static final int COMPLETE_LIMIT = 10;
     /** random number generator only needs to be built once. */
     private static final Random RND = new Random();
     /** scanner to help with processing the command string. */
@@ -64,6 +66,9 @@ public class ConsoleApp {
                 case CMD_EASTER_EGG:
                     randomNumber();
                     break;
+                case CMD_COMPLETE:
+                    processComplete();
+                    break;
                 case INVALID:
                 default:
                     printOutput("%s%n", ConsoleText.INVALID);
@@ -91,6 +96,21 @@ public class ConsoleApp {
         // else do nothing, not a secret easter egg if filter is empty.
     }
 
+    /**
+     * Process the complete command, listing the game names that start with the given text.
+     */
+    private void processComplete() {
+        List<String> names = planner.complete(remainder(), COMPLETE_LIMIT);
+        if (names.isEmpty()) {
+            printOutput("%s%n", ConsoleText.NO_COMPLETIONS);
+            return;
+        }
+        int counter = 1;
+        for (String name : names) {
+            printOutput("%d: %s%n", counter++, name);
+        }
+    }
+
     /**
      * Process the help command.
      */
@@ -175,10 +195,14 @@ public class ConsoleApp {
      *               type.
      */
     private static void printFilterStream(Stream<BoardGame> games, GameData sortON) {
+        if (games == null) {
+            return;
+        }
         int counter = 1;
-        List<BoardGame> gameList = games != null ? games.toList() : Collections.emptyList();
-        for (BoardGame game : gameList) {
-            printOutput("%d: %s%n", counter++, game.toStringWithInfo(sortON));
+        // print as the games are pulled, without copying the whole result first
+        Iterator<BoardGame> iterator = games.iterator();
+        while (iterator.hasNext()) {
+            printOutput("%d: %s%n", counter++, iterator.next().toStringWithInfo(sortON));
         }
     }
 
@@ -328,9 +352,9 @@ public class ConsoleApp {
         /** various commands and text. */
         WELCOME, HELP, INVALID, GOODBYE, PROMPT, NO_FILTER, NO_GAMES_LIST, FILTERED_CLEAR, LIST_HELP, FILTER_HELP,
         /** commands continued. */
-        INVALID_LIST, EASTER_EGG, CMD_EASTER_EGG,
+        INVALID_LIST, EASTER_EGG, CMD_EASTER_EGG, NO_COMPLETIONS,
         /** commands general. */
-        CMD_EXIT, CMD_HELP, CMD_QUESTION, CMD_FILTER, CMD_LIST,
+        CMD_EXIT, CMD_HELP, CMD_QUESTION, CMD_FILTER, CMD_LIST, CMD_COMPLETE,
         /** commands specific to lists and filters. */
         CMD_SHOW, CMD_ADD, CMD_REMOVE, CMD_CLEAR, CMD_SAVE,
         /** more options on commands. */
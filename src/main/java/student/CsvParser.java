@@ -0,0 +1,455 @@
+package student;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Parses csv bytes straight into the columns of a {@link GameStore.Builder}.
+ * <p>
+ * The bytes are scanned in place, from a memory mapped file or a reused buffer, without decoding
+ * lines into Strings or splitting them. Only the boundaries of the fields mapped to a GameData
+ * column are recorded, every other field is skipped over, and whole numbers and decimals are
+ * parsed directly from the bytes. The only String built per line is the name. Values the fast
+ * paths do not cover (long numbers, exponents, quoted numbers) are handed to
+ * {@link Integer#parseInt(String)} and {@link Double#parseDouble(String)}, so what parses, and to
+ * what, is unchanged.
+ * <p>
+ * Fields may be quoted, in which case they can hold commas, line breaks and doubled quotes. The
+ * first line is the header, and names the columns so they can be in any order. Lines that are
+ * too short or have a value that is not a number are skipped.
+ */
+final class CsvParser {
+    /** Field separator. */
+    private static final byte COMMA = ',';
+    /** Quote around a field. */
+    private static final byte QUOTE = '"';
+    /** Carriage return, ends a line alone or before a line feed. */
+    private static final byte CR = '\r';
+    /** Line feed, ends a line. */
+    private static final byte LF = '\n';
+    /** Marks a field that is not mapped to a column. */
+    private static final int NOT_MAPPED = -1;
+    /** Most digits of a decimal that are parsed directly, any more may not fit a double exactly. */
+    private static final int MAX_DIGITS = 15;
+    /** Powers of ten that are exact as doubles. */
+    private static final double[] POWERS = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+        1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+    /** Size of the buffer streams are read through, grown for longer lines. */
+    private static final int BUFFER_SIZE = 1 << 16;
+    /** Size of the windows a file is mapped in, grown for longer lines. */
+    private static final int WINDOW_SIZE = 1 << 26;
+
+    /** The builder rows are added to. */
+    private final GameStore.Builder builder;
+    /** The column of each field, by position in the line, null until the header is read. */
+    private int[] fieldColumns;
+    /** Position of the last mapped field, shorter lines are skipped. */
+    private int lastField;
+    /** Header fields read so far, while reading the header. */
+    private final List<String> headerFields = new ArrayList<>();
+    /** Start of each mapped field of the current line, by GameData ordinal. */
+    private final int[] starts = new int[GameData.values().length];
+    /** End of each mapped field of the current line, by GameData ordinal. */
+    private final int[] ends = new int[GameData.values().length];
+    /** Whether each mapped field of the current line was quoted, by GameData ordinal. */
+    private final boolean[] quoted = new boolean[GameData.values().length];
+    /** Number of fields in the current line. */
+    private int fieldCount;
+    /** Reused copy of the bytes of a field being turned into a String. */
+    private byte[] text = new byte[64];
+
+    /**
+     * Constructor for the parser.
+     *
+     * @param builder the builder rows are added to
+     */
+    CsvParser(GameStore.Builder builder) {
+        this.builder = builder;
+    }
+
+    /**
+     * Parses a whole stream, reading it through a reused buffer.
+     *
+     * @param in the stream, not closed
+     * @throws IOException if reading fails
+     */
+    void parse(InputStream in) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        while (true) {
+            int read = in.read(buffer.array(), buffer.position(), buffer.remaining());
+            boolean end = read < 0;
+            if (read > 0) {
+                buffer.position(buffer.position() + read);
+            }
+            buffer.flip();
+            parse(buffer, end);
+            if (end) {
+                return;
+            }
+            buffer.compact();
+            if (!buffer.hasRemaining()) {
+                // a line longer than the buffer
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer.flip());
+            }
+        }
+    }
+
+    /**
+     * Parses a whole file, mapping it into memory a window at a time.
+     *
+     * @param channel the file, not closed
+     * @throws IOException if mapping fails
+     */
+    void parse(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long offset = 0;
+        int window = WINDOW_SIZE;
+        while (offset < size) {
+            long length = Math.min(window, size - offset);
+            boolean end = offset + length == size;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            parse(buffer, end);
+            if (buffer.position() == 0 && !end) {
+                // a line longer than the window
+                window = (int) Math.min(Integer.MAX_VALUE, window * 2L);
+            }
+            offset += buffer.position();
+        }
+    }
+
+    /**
+     * Parses every complete line from the position of a buffer, leaving the position at the
+     * start of the first incomplete line.
+     *
+     * @param buffer the bytes to parse
+     * @param endOfInput whether the buffer holds the end of the input, so its last line is
+     *        complete even without a line break
+     */
+    void parse(ByteBuffer buffer, boolean endOfInput) {
+        while (buffer.position() < buffer.limit() && parseLine(buffer, endOfInput)) {
+            // parse the next line
+        }
+    }
+
+    /**
+     * Parses the header line from the position of a buffer, if it has not been read yet.
+     *
+     * @param buffer the bytes to parse
+     * @param endOfInput whether the buffer holds the end of the input
+     * @return true if the header has been read
+     */
+    boolean parseHeader(ByteBuffer buffer, boolean endOfInput) {
+        if (fieldColumns == null && buffer.position() < buffer.limit()) {
+            parseLine(buffer, endOfInput);
+        }
+        return fieldColumns != null;
+    }
+
+    /**
+     * Creates a parser for another part of the same input, sharing the header read by this one.
+     *
+     * @param chunkBuilder the builder the rows of the part are added to
+     * @return the parser
+     */
+    CsvParser forChunk(GameStore.Builder chunkBuilder) {
+        CsvParser parser = new CsvParser(chunkBuilder);
+        parser.fieldColumns = fieldColumns;
+        parser.lastField = lastField;
+        return parser;
+    }
+
+    /**
+     * Parses the line at the position of a buffer, moving the position past it.
+     *
+     * @param buffer the bytes to parse
+     * @param endOfInput whether the buffer holds the end of the input
+     * @return true if the line was complete, false if it was left for more bytes
+     */
+    private boolean parseLine(ByteBuffer buffer, boolean endOfInput) {
+        int limit = buffer.limit();
+        int end = scan(buffer, buffer.position(), limit, endOfInput);
+        if (end < 0) {
+            return false;
+        }
+        if (fieldColumns == null) {
+            readHeader();
+        } else {
+            addRow(buffer);
+        }
+        if (end < limit && buffer.get(end) == CR) {
+            end++;
+        }
+        if (end < limit && buffer.get(end) == LF) {
+            end++;
+        }
+        buffer.position(end);
+        return true;
+    }
+
+    /**
+     * Scans one line, recording where its mapped fields are (or every field, for the header).
+     *
+     * @param buffer the bytes
+     * @param start where the line starts
+     * @param limit where the bytes end
+     * @param endOfInput whether the bytes end the input
+     * @return where the line ends, its line break or the limit, or -1 if the line is incomplete
+     */
+    private int scan(ByteBuffer buffer, int start, int limit, boolean endOfInput) {
+        headerFields.clear();
+        Arrays.fill(starts, -1);
+        int field = 0;
+        int i = start;
+        while (true) {
+            int fieldStart = i;
+            boolean isQuoted = i < limit && buffer.get(i) == QUOTE;
+            if (isQuoted) {
+                fieldStart = ++i;
+                while (i < limit) {
+                    if (buffer.get(i) == QUOTE) {
+                        if (i + 1 < limit && buffer.get(i + 1) == QUOTE) {
+                            i += 2;
+                            continue;
+                        }
+                        if (i + 1 < limit || endOfInput) {
+                            break;
+                        }
+                        return -1; // cannot tell yet if the quote is doubled
+                    }
+                    i++;
+                }
+                if (i >= limit && !endOfInput) {
+                    return -1;
+                }
+            }
+            int fieldEnd = i;
+            if (isQuoted) {
+                // anything between the closing quote and the next comma is ignored
+                i = Math.min(i + 1, limit);
+            }
+            while (i < limit && !endsField(buffer.get(i))) {
+                i++;
+            }
+            if (!isQuoted) {
+                fieldEnd = i;
+            }
+            record(buffer, field++, fieldStart, fieldEnd, isQuoted);
+            if (i >= limit) {
+                if (!endOfInput) {
+                    return -1;
+                }
+                fieldCount = field;
+                return limit;
+            }
+            if (buffer.get(i) != COMMA) {
+                fieldCount = field;
+                return i;
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Checks whether a byte ends an unquoted field.
+     *
+     * @param b the byte
+     * @return true for a comma or a line break
+     */
+    private static boolean endsField(byte b) {
+        return b == COMMA || b == LF || b == CR;
+    }
+
+    /**
+     * Records a field of the current line.
+     *
+     * @param buffer the bytes
+     * @param field the position of the field in the line
+     * @param start where the value starts
+     * @param end where the value ends
+     * @param isQuoted whether the value was quoted
+     */
+    private void record(ByteBuffer buffer, int field, int start, int end, boolean isQuoted) {
+        if (fieldColumns == null) {
+            headerFields.add(text(buffer, start, end, isQuoted));
+        } else if (field < fieldColumns.length && fieldColumns[field] != NOT_MAPPED) {
+            int column = fieldColumns[field];
+            starts[column] = start;
+            ends[column] = end;
+            quoted[column] = isQuoted;
+        }
+    }
+
+    /**
+     * Maps the header fields to columns. Unknown columns are ignored, and if a column is named
+     * twice the later one is used.
+     */
+    private void readHeader() {
+        int[] columnFields = new int[GameData.values().length];
+        Arrays.fill(columnFields, NOT_MAPPED);
+        for (int i = 0; i < headerFields.size(); i++) {
+            for (GameData column : GameData.values()) {
+                if (column.getColumnName().equals(headerFields.get(i))) {
+                    columnFields[column.ordinal()] = i;
+                }
+            }
+        }
+        int[] columns = new int[headerFields.size()];
+        Arrays.fill(columns, NOT_MAPPED);
+        for (GameData column : GameData.values()) {
+            int field = columnFields[column.ordinal()];
+            if (field == NOT_MAPPED) {
+                throw new IllegalArgumentException("Missing column: " + column.getColumnName());
+            }
+            columns[field] = column.ordinal();
+            lastField = Math.max(lastField, field);
+        }
+        fieldColumns = columns;
+    }
+
+    /**
+     * Adds the current line to the builder, unless it is too short or a value is not a number.
+     *
+     * @param buffer the bytes
+     */
+    private void addRow(ByteBuffer buffer) {
+        if (fieldCount <= lastField) {
+            return;
+        }
+        try {
+            builder.add(text(buffer, GameData.NAME.ordinal()),
+                    parseInt(buffer, GameData.ID),
+                    parseInt(buffer, GameData.MIN_PLAYERS),
+                    parseInt(buffer, GameData.MAX_PLAYERS),
+                    parseInt(buffer, GameData.MIN_TIME),
+                    parseInt(buffer, GameData.MAX_TIME),
+                    parseDouble(buffer, GameData.DIFFICULTY),
+                    parseInt(buffer, GameData.RANK),
+                    parseDouble(buffer, GameData.RATING),
+                    parseInt(buffer, GameData.YEAR));
+        } catch (NumberFormatException e) {
+            // skip if there is an issue
+        }
+    }
+
+    /**
+     * Decodes a value as UTF-8, turning doubled quotes in a quoted value back into one.
+     *
+     * @param buffer the bytes
+     * @param start where the value starts
+     * @param end where the value ends
+     * @param isQuoted whether the value was quoted
+     * @return the text
+     */
+    private String text(ByteBuffer buffer, int start, int end, boolean isQuoted) {
+        int length = end - start;
+        if (text.length < length) {
+            text = new byte[Math.max(length, text.length * 2)];
+        }
+        buffer.get(start, text, 0, length);
+        if (isQuoted) {
+            int kept = 0;
+            for (int i = 0; i < length; i++) {
+                text[kept++] = text[i];
+                if (text[i] == QUOTE && i + 1 < length && text[i + 1] == QUOTE) {
+                    i++;
+                }
+            }
+            length = kept;
+        }
+        return new String(text, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses a column of the current line as a whole number, as {@link Integer#parseInt(String)}
+     * would.
+     *
+     * @param buffer the bytes
+     * @param column the column
+     * @return the number
+     * @throws NumberFormatException if the value is not a whole number
+     */
+    private int parseInt(ByteBuffer buffer, GameData column) {
+        int c = column.ordinal();
+        int i = starts[c];
+        int end = ends[c];
+        boolean negative = i < end && buffer.get(i) == '-';
+        if (negative || i < end && buffer.get(i) == '+') {
+            i++;
+        }
+        if (quoted[c] || i == end || end - i > 9) {
+            return Integer.parseInt(text(buffer, c));
+        }
+        int value = 0;
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return Integer.parseInt(text(buffer, c));
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses a column of the current line as a decimal, as {@link Double#parseDouble(String)}
+     * would.
+     * <p>
+     * Plain decimals of up to 15 digits are parsed directly: the digits and the power of ten are
+     * both exact as doubles, so dividing them gives the correctly rounded value.
+     *
+     * @param buffer the bytes
+     * @param column the column
+     * @return the number
+     * @throws NumberFormatException if the value is not a number
+     */
+    private double parseDouble(ByteBuffer buffer, GameData column) {
+        int c = column.ordinal();
+        int i = starts[c];
+        int end = ends[c];
+        boolean negative = i < end && buffer.get(i) == '-';
+        if (negative || i < end && buffer.get(i) == '+') {
+            i++;
+        }
+        long digits = 0;
+        int count = 0;
+        int scale = -1;
+        for (; i < end && !quoted[c]; i++) {
+            byte b = buffer.get(i);
+            if (b == '.' && scale < 0) {
+                scale = 0;
+                continue;
+            }
+            int digit = b - '0';
+            if (digit < 0 || digit > 9 || ++count > MAX_DIGITS) {
+                break;
+            }
+            digits = digits * 10 + digit;
+            if (scale >= 0) {
+                scale++;
+            }
+        }
+        if (i < end || quoted[c] || count == 0) {
+            return Double.parseDouble(text(buffer, c));
+        }
+        double value = digits / POWERS[Math.max(scale, 0)];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Gets a column of the current line as text.
+     *
+     * @param buffer the bytes
+     * @param column the column ordinal
+     * @return the text
+     */
+    private String text(ByteBuffer buffer, int column) {
+        return text(buffer, starts[column], ends[column], quoted[column]);
+    }
+}
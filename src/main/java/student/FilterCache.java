@@ -0,0 +1,367 @@
+package student;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of compiled filters and their sorted results, evicting the least recently used
+ * entry, approximately.
+ * <p>
+ * Entries are keyed by the normalized filter text, the sort column and the sort direction. Callers
+ * normalize the text once with {@link #normalize(String)} and pass the result to every method.
+ * Each entry keeps the compiled filter, which never goes stale, and the sorted result, which is
+ * only valid until the cache is invalidated. Invalidating keeps the compiled filters, so the next
+ * lookup of the same filter only has to re-run the evaluation.
+ * <p>
+ * The cache is safe to share between threads, and never locks: entries live in a concurrent map,
+ * and are immutable apart from the time they were last used. That time is read from a clock that
+ * only moves when an entry is stored: a store stamps the entry with the new time, and a lookup
+ * with just after the last store, so a lookup writes nothing shared but its own entry, and only
+ * when the clock has moved since. When a store takes the cache over its capacity, the entry used
+ * longest ago is removed, with entries looked up since the same store counting as equally
+ * recent.
+ */
+public final class FilterCache {
+    /** Default number of entries to keep. */
+    public static final int DEFAULT_CAPACITY = 128;
+
+    /** Characters that separate the tokens of a filter, spaces around them are not meaningful. */
+    private static final String SEPARATORS = ",<>=!~";
+
+    /** Maximum number of entries to keep. */
+    private final int capacity;
+    /** The entries. */
+    private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    /** Moved on by two with every store, stamped on entries as they are used. */
+    private final AtomicLong clock = new AtomicLong();
+    /** Results stored before this generation are stale. */
+    private final AtomicLong generation = new AtomicLong();
+    /** Number of lookups that found a valid result. */
+    private final LongAdder hits = new LongAdder();
+    /** Number of lookups that did not find a valid result. */
+    private final LongAdder misses = new LongAdder();
+    /** Number of entries removed to stay within the capacity. */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructor for the cache.
+     *
+     * @param capacity maximum number of entries to keep, 0 disables caching
+     */
+    public FilterCache(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Normalizes filter text for use as a cache key.
+     * <p>
+     * The text is lower cased (all filters are case insensitive) and spaces are removed from the
+     * ends and around commas and operators. Spaces inside a value, such as {@code name==go fish},
+     * are kept as they change the meaning of the filter.
+     *
+     * @param filter the filter text, may be null
+     * @return the normalized text
+     */
+    public static String normalize(String filter) {
+        if (filter == null) {
+            return "";
+        }
+        String lower = filter.trim().toLowerCase();
+        StringBuilder sb = new StringBuilder(lower.length());
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (Character.isWhitespace(c)) {
+                int next = i;
+                while (next < lower.length() && Character.isWhitespace(lower.charAt(next))) {
+                    next++;
+                }
+                boolean afterSeparator = sb.length() == 0
+                        || SEPARATORS.indexOf(sb.charAt(sb.length() - 1)) >= 0;
+                boolean beforeSeparator = next == lower.length()
+                        || SEPARATORS.indexOf(lower.charAt(next)) >= 0;
+                if (!afterSeparator && !beforeSeparator) {
+                    sb.append(lower, i, next);
+                }
+                i = next - 1;
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Gets the compiled filter for the given text, compiling it if it is not cached.
+     *
+     * @param filter the normalized filter text
+     * @param sortOn the column the results are sorted on
+     * @param ascending the sort direction
+     * @return the compiled filter
+     */
+    public CompiledFilter compile(String filter, GameData sortOn, boolean ascending) {
+        Key key = new Key(filter, sortOn, ascending);
+        Entry entry = use(entries.get(key));
+        if (entry != null) {
+            return entry.compiled;
+        }
+        CompiledFilter compiled = FilterCompiler.compile(filter);
+        if (capacity == 0) {
+            return compiled;
+        }
+        Entry existing = entries.putIfAbsent(key, new Entry(compiled, null, 0,
+                clock.addAndGet(2)));
+        if (existing != null) {
+            return existing.compiled; // compiled by another thread meanwhile
+        }
+        trim();
+        return compiled;
+    }
+
+    /**
+     * Gets the cached sorted result for the given filter, sort column and direction.
+     *
+     * @param filter the normalized filter text
+     * @param sortOn the column the results are sorted on
+     * @param ascending the sort direction
+     * @return the cached result, or null if there is no valid result
+     */
+    public List<BoardGame> getResult(String filter, GameData sortOn, boolean ascending) {
+        Entry entry = use(entries.get(new Key(filter, sortOn, ascending)));
+        if (entry != null && entry.result != null && entry.generation == generation.get()) {
+            hits.increment();
+            return entry.result;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Stores the sorted result for the given filter, sort column and direction.
+     *
+     * @param filter the normalized filter text
+     * @param sortOn the column the results are sorted on
+     * @param ascending the sort direction
+     * @param compiled the compiled filter
+     * @param result the sorted result, stored as an unmodifiable copy
+     * @return the stored result
+     */
+    public List<BoardGame> putResult(String filter, GameData sortOn, boolean ascending,
+            CompiledFilter compiled, List<BoardGame> result) {
+        return putResult(filter, sortOn, ascending, compiled, result, generation.get());
+    }
+
+    /**
+     * Stores the sorted result for the given filter, sort column and direction, computed from the
+     * games as they were at a generation. If the cache has been invalidated since, the result is
+     * stored as already stale, so a result computed from games that were replaced meanwhile is
+     * never returned.
+     *
+     * @param filter the normalized filter text
+     * @param sortOn the column the results are sorted on
+     * @param ascending the sort direction
+     * @param compiled the compiled filter
+     * @param result the sorted result, stored as an unmodifiable copy
+     * @param resultGeneration the {@link #generation()} read before the games were
+     * @return the stored result, not kept if the capacity is 0
+     */
+    public List<BoardGame> putResult(String filter, GameData sortOn, boolean ascending,
+            CompiledFilter compiled, List<BoardGame> result, long resultGeneration) {
+        List<BoardGame> stored = List.copyOf(result);
+        if (capacity == 0) {
+            return stored;
+        }
+        entries.put(new Key(filter, sortOn, ascending), new Entry(compiled, stored,
+                resultGeneration, clock.addAndGet(2)));
+        trim();
+        return stored;
+    }
+
+    /**
+     * Get the current generation, which every invalidation moves on.
+     *
+     * @return the generation
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Marks every cached result as stale. Compiled filters are kept.
+     * <p>
+     * Called whenever the games being filtered change.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Removes every entry from the cache. The counters are not reset.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Get the maximum number of entries kept.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the number of entries currently in the cache.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Get the number of result lookups that found a valid result.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of result lookups that did not find a valid result.
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the number of entries removed to stay within the capacity.
+     *
+     * @return the number of evictions
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Get a summary of the cache counters.
+     *
+     * @return string representation of the cache
+     */
+    @Override
+    public String toString() {
+        return "FilterCache{size=" + entries.size() + ", capacity=" + capacity + ", hits="
+                + hits.sum() + ", misses=" + misses.sum() + ", evictions=" + evictions.sum()
+                + '}';
+    }
+
+    /**
+     * Marks an entry as used now, just after the last store.
+     *
+     * @param entry the entry, may be null
+     * @return the entry
+     */
+    private Entry use(Entry entry) {
+        if (entry != null) {
+            long now = clock.get() + 1;
+            if (entry.lastUsed != now) {
+                entry.lastUsed = now;
+            }
+        }
+        return entry;
+    }
+
+    /** Removes the entries used longest ago until the cache is within its capacity. */
+    private void trim() {
+        while (entries.size() > capacity) {
+            Map.Entry<Key, Entry> eldest = null;
+            for (Map.Entry<Key, Entry> candidate : entries.entrySet()) {
+                if (eldest == null || candidate.getValue().lastUsed < eldest.getValue().lastUsed) {
+                    eldest = candidate;
+                }
+            }
+            if (eldest != null && entries.remove(eldest.getKey(), eldest.getValue())) {
+                evictions.increment();
+            }
+        }
+    }
+
+    /** Key of a cache entry. */
+    private static final class Key {
+        /** The normalized filter text. */
+        private final String filter;
+        /** The sort column. */
+        private final GameData sortOn;
+        /** The sort direction. */
+        private final boolean ascending;
+
+        /**
+         * Constructor for the key.
+         *
+         * @param filter the normalized filter text
+         * @param sortOn the sort column
+         * @param ascending the sort direction
+         */
+        Key(String filter, GameData sortOn, boolean ascending) {
+            this.filter = filter;
+            this.sortOn = sortOn;
+            this.ascending = ascending;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return ascending == other.ascending && sortOn == other.sortOn
+                    && filter.equals(other.filter);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(filter, sortOn, ascending);
+        }
+    }
+
+    /** A cache entry, replaced as a whole when its result is stored. */
+    private static final class Entry {
+        /** The compiled filter. */
+        private final CompiledFilter compiled;
+        /** The sorted result, may be null if only the filter was compiled. */
+        private final List<BoardGame> result;
+        /** The generation the result was stored in. */
+        private final long generation;
+        /** The clock when the entry was last used. */
+        private volatile long lastUsed;
+
+        /**
+         * Constructor for the entry.
+         *
+         * @param compiled the compiled filter
+         * @param result the sorted result, or null
+         * @param generation the generation the result was stored in
+         * @param lastUsed the clock when the entry was stored
+         */
+        Entry(CompiledFilter compiled, List<BoardGame> result, long generation, long lastUsed) {
+            this.compiled = compiled;
+            this.result = result;
+            this.generation = generation;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package student;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiles filter strings into {@link CompiledFilter} objects.
+ * <p>
+ * All of the string work for a filter (splitting on commas, finding the operator, looking up the
+ * column, parsing the value) is done here once, so the compiled filter can be evaluated over the
+ * whole collection without any further parsing.
+ */
+public final class FilterCompiler {
+    /** Tolerance used when checking doubles for equality. */
+    static final double DOUBLE_TOLERANCE = 0.001;
+
+    /** Separator between conditions in a filter. */
+    private static final String CONDITION_DELIMITER = ",";
+
+    // Private constructor to prevent instantiation of utility class
+    private FilterCompiler() { }
+
+    /**
+     * Compiles a filter string, such as {@code minPlayers>=2,name~=go}.
+     *
+     * @param filter the filter string, may be null or empty
+     * @return the compiled filter
+     */
+    public static CompiledFilter compile(String filter) {
+        List<FilterCondition> conditions = new ArrayList<>();
+        if (filter != null && !filter.isEmpty()) {
+            for (String condition : filter.trim().split(CONDITION_DELIMITER)) {
+                String trimmed = condition.trim();
+                if (!trimmed.isEmpty()) {
+                    FilterCondition compiled = compileCondition(trimmed);
+                    if (compiled != null) {
+                        conditions.add(compiled);
+                    }
+                }
+            }
+        }
+        return new CompiledFilter(conditions);
+    }
+
+    /**
+     * Compiles a single condition, such as {@code minPlayers>=2}.
+     *
+     * @param condition the trimmed condition string
+     * @return the compiled condition, or null if the condition should be ignored
+     */
+    static FilterCondition compileCondition(String condition) {
+        Operations operator = Operations.getOperatorFromStr(condition);
+        // ~= takes priority for name, even if the value contains another operator
+        if (condition.toLowerCase().contains("name")
+                && condition.contains(Operations.CONTAINS.getOperator())) {
+            int split = condition.indexOf(Operations.CONTAINS.getOperator());
+            GameData column = toColumn(condition.substring(0, split));
+            if (column == null) {
+                return null;
+            }
+            if (column == GameData.NAME) {
+                return build(column, Operations.CONTAINS,
+                        condition.substring(split + Operations.CONTAINS.getOperator().length()));
+            }
+        }
+
+        if (operator == null) {
+            return null;
+        }
+        int split = condition.indexOf(operator.getOperator());
+        GameData column = toColumn(condition.substring(0, split));
+        if (column == null || column == GameData.ID) {
+            return null; // id is not used for filtering
+        }
+        return build(column, operator,
+                condition.substring(split + operator.getOperator().length()));
+    }
+
+    /**
+     * Builds the condition, parsing the value based on the type of the column.
+     *
+     * @param column the column to filter on
+     * @param operator the operation to apply
+     * @param value the untrimmed value
+     * @return the compiled condition
+     */
+    private static FilterCondition build(GameData column, Operations operator, String value) {
+        String text = value.trim();
+        int intOperand = 0;
+        double doubleOperand = 0;
+        boolean matchesNothing = false;
+        if (column != GameData.NAME) {
+            if (operator == Operations.CONTAINS) {
+                matchesNothing = true; // contains is only available for name
+            } else if (column == GameData.RATING || column == GameData.DIFFICULTY) {
+                try {
+                    doubleOperand = Double.parseDouble(text);
+                } catch (NumberFormatException e) {
+                    matchesNothing = true;
+                }
+            } else {
+                try {
+                    intOperand = Integer.parseInt(text);
+                } catch (NumberFormatException e) {
+                    matchesNothing = true;
+                }
+            }
+        }
+        return new FilterCondition(column, operator, text, intOperand, doubleOperand,
+                matchesNothing);
+    }
+
+    /**
+     * Looks up the column from its name.
+     *
+     * @param name the untrimmed column name
+     * @return the column, or null if there is no column with that name
+     */
+    private static GameData toColumn(String name) {
+        try {
+            return GameData.fromString(name.trim());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package student;
+
+import java.util.Objects;
+
+/**
+ * A single compiled filter condition, such as {@code minPlayers>=2}.
+ * <p>
+ * The column, operator and operand are all resolved when the condition is built by the
+ * {@link FilterCompiler}, so testing a game against it does no string parsing. Numeric operands are
+ * parsed once into primitives, and string operands are lower cased once for the contains
+ * operation.
+ * <p>
+ * A condition whose operand could not be parsed for its column (for example {@code rank>=abc}, or
+ * {@code ~=} on a numeric column) never matches any game, which mirrors the original per game
+ * parse failure behaviour.
+ */
+public final class FilterCondition {
+    /** The column the condition filters on. */
+    private final GameData column;
+    /** The operation to apply. */
+    private final Operations operator;
+    /** The operand as typed in the filter (trimmed). */
+    private final String text;
+    /** The operand lower cased, used for contains. */
+    private final String lowerText;
+    /** The operand parsed as an int, for int based columns. */
+    private final int intOperand;
+    /** The operand parsed as a double, for double based columns. */
+    private final double doubleOperand;
+    /** True if the condition can never match a game. */
+    private final boolean matchesNothing;
+
+    /**
+     * Constructor for the condition. Use {@link FilterCompiler} to build conditions.
+     *
+     * @param column the column to filter on
+     * @param operator the operation to apply
+     * @param text the operand as typed in the filter
+     * @param intOperand the operand parsed as an int
+     * @param doubleOperand the operand parsed as a double
+     * @param matchesNothing true if the operand could not be used with the column
+     */
+    FilterCondition(GameData column, Operations operator, String text, int intOperand,
+            double doubleOperand, boolean matchesNothing) {
+        this.column = column;
+        this.operator = operator;
+        this.text = text;
+        this.lowerText = text.toLowerCase();
+        this.intOperand = intOperand;
+        this.doubleOperand = doubleOperand;
+        this.matchesNothing = matchesNothing;
+    }
+
+    /**
+     * Get the column the condition filters on.
+     *
+     * @return the column
+     */
+    public GameData getColumn() {
+        return column;
+    }
+
+    /**
+     * Get the operation the condition applies.
+     *
+     * @return the operator
+     */
+    public Operations getOperator() {
+        return operator;
+    }
+
+    /**
+     * Get the operand as it was typed in the filter (trimmed).
+     *
+     * @return the operand text
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Get the operand lower cased.
+     *
+     * @return the lower cased operand text
+     */
+    public String getLowerText() {
+        return lowerText;
+    }
+
+    /**
+     * Get the operand as an int. Only meaningful for int based columns.
+     *
+     * @return the int operand
+     */
+    public int getIntOperand() {
+        return intOperand;
+    }
+
+    /**
+     * Get the operand as a double. Only meaningful for double based columns.
+     *
+     * @return the double operand
+     */
+    public double getDoubleOperand() {
+        return doubleOperand;
+    }
+
+    /**
+     * Whether the condition can never match a game.
+     *
+     * @return true if no game can match the condition
+     */
+    public boolean matchesNothing() {
+        return matchesNothing;
+    }
+
+    /**
+     * Checks if a game matches the condition.
+     *
+     * @param game the game to check
+     * @return true if the game matches the condition
+     */
+    public boolean test(BoardGame game) {
+        if (matchesNothing) {
+            return false;
+        }
+        switch (column) {
+            case NAME:
+                return testString(game.getName());
+            case MIN_PLAYERS:
+                return testInt(game.getMinPlayers());
+            case MAX_PLAYERS:
+                return testInt(game.getMaxPlayers());
+            case MIN_TIME:
+                return testInt(game.getMinPlayTime());
+            case MAX_TIME:
+                return testInt(game.getMaxPlayTime());
+            case RANK:
+                return testInt(game.getRank());
+            case YEAR:
+                return testInt(game.getYearPublished());
+            case DIFFICULTY:
+                return testDouble(game.getDifficulty());
+            case RATING:
+                return testDouble(game.getRating());
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Checks if a string value matches the condition. Comparisons ignore case.
+     *
+     * @param value the value to check
+     * @return true if the value matches
+     */
+    public boolean testString(String value) {
+        if (value == null) {
+            return operator == Operations.NOT_EQUALS;
+        }
+        switch (operator) {
+            case EQUALS:
+                return value.equalsIgnoreCase(text);
+            case NOT_EQUALS:
+                return !value.equalsIgnoreCase(text);
+            case CONTAINS:
+                return value.toLowerCase().contains(lowerText);
+            case GREATER_THAN:
+                return value.compareToIgnoreCase(text) > 0;
+            case LESS_THAN:
+                return value.compareToIgnoreCase(text) < 0;
+            case GREATER_THAN_EQUALS:
+                return value.compareToIgnoreCase(text) >= 0;
+            case LESS_THAN_EQUALS:
+                return value.compareToIgnoreCase(text) <= 0;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Checks if an int value matches the condition.
+     *
+     * @param value the value to check
+     * @return true if the value matches
+     */
+    public boolean testInt(int value) {
+        switch (operator) {
+            case EQUALS:
+                return value == intOperand;
+            case NOT_EQUALS:
+                return value != intOperand;
+            case GREATER_THAN:
+                return value > intOperand;
+            case LESS_THAN:
+                return value < intOperand;
+            case GREATER_THAN_EQUALS:
+                return value >= intOperand;
+            case LESS_THAN_EQUALS:
+                return value <= intOperand;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Checks if a double value matches the condition. Equality uses a tolerance of 0.001.
+     *
+     * @param value the value to check
+     * @return true if the value matches
+     */
+    public boolean testDouble(double value) {
+        switch (operator) {
+            case EQUALS:
+                return Math.abs(value - doubleOperand) < FilterCompiler.DOUBLE_TOLERANCE;
+            case NOT_EQUALS:
+                return Math.abs(value - doubleOperand) >= FilterCompiler.DOUBLE_TOLERANCE;
+            case GREATER_THAN:
+                return value > doubleOperand;
+            case LESS_THAN:
+                return value < doubleOperand;
+            case GREATER_THAN_EQUALS:
+                return value >= doubleOperand;
+            case LESS_THAN_EQUALS:
+                return value <= doubleOperand;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Checks if another object is the same condition: the same column, operator and operand text,
+     * ignoring case as matching does.
+     *
+     * @param obj the object to compare
+     * @return true if the conditions are the same
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof FilterCondition)) {
+            return false;
+        }
+        FilterCondition other = (FilterCondition) obj;
+        return column == other.column && operator == other.operator
+                && lowerText.equals(other.lowerText);
+    }
+
+    /**
+     * Get a hash code consistent with {@link #equals(Object)}.
+     *
+     * @return the hash code
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(column, operator, lowerText);
+    }
+
+    /**
+     * Get a string representation of the condition, such as {@code minPlayers>=2}.
+     *
+     * @return string representation of the condition
+     */
+    @Override
+    public String toString() {
+        return column.getColumnName() + operator.getOperator() + text;
+    }
+}
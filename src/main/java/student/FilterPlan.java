@@ -0,0 +1,412 @@
+package student;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The order in which the conditions of a compiled filter are evaluated against a store.
+ * <p>
+ * Each condition gets an estimated selectivity (the fraction of rows it keeps) from the column
+ * histograms, the name index, or for name contains the trigram index, and a relative cost per row
+ * (numeric checks are cheap, name comparisons less so, and name contains is the most expensive).
+ * Conditions are then run in order of how many rows they remove per unit of cost, so cheap and
+ * selective conditions go first.
+ * <p>
+ * If a numeric or name comparison is estimated to keep at most half the rows, the most selective
+ * one is moved to the front and answered from its {@link RangeIndex} or the {@link NameIndex},
+ * seeding the selection without a scan. Execution stops as soon as the selection is empty.
+ * <p>
+ * A plan can record the actual number of rows left after each step, which together with the
+ * estimates is what {@link Planner#explain(String)} reports.
+ * <p>
+ * For large stores a plan can also run on a {@link ForkJoinPool}: after the seed, the rows are
+ * split into chunks that are refined independently and merged. The result is the same set of
+ * rows, so sorting it afterwards gives the same order as a single threaded run.
+ */
+public final class FilterPlan {
+    /** Relative per row cost of a numeric condition. */
+    private static final double NUMERIC_COST = 1;
+    /** Relative per row cost of a name comparison. */
+    private static final double NAME_COST = 4;
+    /** Relative per row cost of a name contains. */
+    private static final double CONTAINS_COST = 8;
+    /** Estimated selectivity of a name contains. */
+    private static final double CONTAINS_SELECTIVITY = 0.1;
+    /** Rows refined by one parallel task, a multiple of 64 so chunks never share a bitset word. */
+    static final int CHUNK_ROWS = 1 << 14;
+
+    /** The steps, in the order they run. */
+    private final List<Step> steps;
+    /**
+     * The store the plan was made for, weakly held: plans are kept by cached filters, and must
+     * not keep a replaced version of the catalogue from being reclaimed.
+     */
+    private final WeakReference<GameStore> store;
+    /** Number of rows in the store the plan was made for. */
+    private final int rows;
+
+    /**
+     * Constructor for the plan.
+     *
+     * @param steps the steps in order
+     * @param store the store the plan was made for
+     */
+    private FilterPlan(List<Step> steps, GameStore store) {
+        this.steps = steps;
+        this.store = new WeakReference<>(store);
+        this.rows = store.size();
+    }
+
+    /**
+     * Plans the evaluation of a filter against a store.
+     *
+     * @param store the store the filter will run against
+     * @param filter the compiled filter
+     * @return the plan
+     */
+    public static FilterPlan plan(GameStore store, CompiledFilter filter) {
+        int size = store.size();
+        List<Step> steps = new ArrayList<>(filter.getConditions().size());
+        for (FilterCondition condition : filter.getConditions()) {
+            double selectivity = size == 0 ? 0 : estimateRows(store, condition) / size;
+            steps.add(new Step(condition, selectivity, costOf(condition)));
+        }
+        // most rows removed per unit of cost first
+        steps.sort(Comparator.comparingDouble(step -> -(1 - step.selectivity) / step.cost));
+
+        Step seed = null;
+        for (Step step : steps) {
+            if (isIndexable(step.condition) && step.selectivity <= 0.5
+                    && (seed == null || step.selectivity < seed.selectivity)) {
+                seed = step;
+            }
+        }
+        if (seed != null) {
+            steps.remove(seed);
+            steps.add(0, seed);
+            seed.indexed = true;
+        }
+
+        double estimate = size;
+        for (Step step : steps) {
+            estimate *= step.selectivity;
+            step.estimatedRows = estimate;
+        }
+        return new FilterPlan(steps, store);
+    }
+
+    /**
+     * Whether the plan was made for a store.
+     *
+     * @param other the store
+     * @return true if the plan was made for that store
+     */
+    boolean isFor(GameStore other) {
+        return store.get() == other;
+    }
+
+    /**
+     * Get the steps of the plan in the order they run.
+     *
+     * @return unmodifiable list of steps
+     */
+    public List<Step> getSteps() {
+        return Collections.unmodifiableList(steps);
+    }
+
+    /**
+     * Runs the plan.
+     *
+     * @param store the store, the same one the plan was made for
+     * @param out bitset to receive the matching rows, cleared first
+     */
+    public void execute(GameStore store, BitSet out) {
+        execute(store, out, false);
+    }
+
+    /**
+     * Runs the plan, optionally recording the number of rows left after each step.
+     *
+     * @param store the store, the same one the plan was made for
+     * @param out bitset to receive the matching rows, cleared first
+     * @param record whether to record the actual row counts
+     */
+    public void execute(GameStore store, BitSet out, boolean record) {
+        int first = seed(store, out);
+        if (first == 1) {
+            recordStep(steps.get(0), out, record);
+        }
+        for (int i = first; i < steps.size(); i++) {
+            Step step = steps.get(i);
+            if (!out.isEmpty()) {
+                store.refine(step.condition, out);
+            }
+            recordStep(step, out, record);
+        }
+    }
+
+    /**
+     * Runs the plan on a fork join pool, refining chunks of rows in parallel. Actual row counts
+     * are not recorded.
+     *
+     * @param store the store, the same one the plan was made for
+     * @param out bitset to receive the matching rows, cleared first
+     * @param pool the pool to run the chunks on
+     */
+    public void execute(GameStore store, BitSet out, ForkJoinPool pool) {
+        int first = seed(store, out);
+        if (first == steps.size() || out.isEmpty()) {
+            return;
+        }
+        long[] words = new long[(rows + Long.SIZE - 1) / Long.SIZE];
+        pool.invoke(new RefineTask(store, out, first, 0, rows, words));
+        out.clear();
+        out.or(BitSet.valueOf(words));
+    }
+
+    /**
+     * Seeds the selection, from the index if the first step is indexed, otherwise with every row.
+     *
+     * @param store the store
+     * @param out bitset to receive the seed rows, cleared first
+     * @return the number of steps the seed has already applied, 0 or 1
+     */
+    private int seed(GameStore store, BitSet out) {
+        out.clear();
+        if (steps.isEmpty() || !steps.get(0).indexed) {
+            out.set(0, rows);
+            return 0;
+        }
+        FilterCondition condition = steps.get(0).condition;
+        if (condition.getColumn() == GameData.NAME) {
+            store.nameIndex().select(condition, out);
+        } else {
+            store.rangeIndex(condition.getColumn()).select(condition, out);
+        }
+        return 1;
+    }
+
+    /**
+     * Records the rows left after a step.
+     *
+     * @param step the step
+     * @param out the selection after the step
+     * @param record whether to record
+     */
+    private static void recordStep(Step step, BitSet out, boolean record) {
+        if (record) {
+            step.actualRows = out.cardinality();
+        }
+    }
+
+    /**
+     * Estimates the number of rows a condition keeps on its own.
+     *
+     * @param store the store
+     * @param condition the condition
+     * @return the estimated number of rows
+     */
+    private static double estimateRows(GameStore store, FilterCondition condition) {
+        if (condition.matchesNothing()) {
+            return 0;
+        }
+        ColumnHistogram histogram = store.histogram(condition.getColumn());
+        if (histogram != null) {
+            return histogram.estimate(condition);
+        }
+        if (condition.getOperator() == Operations.CONTAINS) {
+            int bound = store.trigramIndex().estimate(condition.getLowerText());
+            return bound >= 0 ? bound : store.size() * CONTAINS_SELECTIVITY;
+        }
+        return store.nameIndex().count(condition);
+    }
+
+    /**
+     * Whether a condition can seed the selection from an index.
+     *
+     * @param condition the condition
+     * @return true for numeric conditions and name conditions other than contains
+     */
+    private static boolean isIndexable(FilterCondition condition) {
+        if (condition.getColumn() == GameData.NAME) {
+            return condition.getOperator() != Operations.CONTAINS;
+        }
+        return RangeIndex.supports(condition.getColumn());
+    }
+
+    /**
+     * Get the relative per row cost of a condition.
+     *
+     * @param condition the condition
+     * @return the cost
+     */
+    private static double costOf(FilterCondition condition) {
+        if (condition.getColumn() != GameData.NAME) {
+            return NUMERIC_COST;
+        }
+        return condition.getOperator() == Operations.CONTAINS ? CONTAINS_COST : NAME_COST;
+    }
+
+    /**
+     * Get the plan as a table of steps, with estimated and (if recorded) actual rows left after
+     * each step.
+     *
+     * @return string representation of the plan
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-4s %-30s %-6s %10s %8s%n", "step", "condition", "access",
+                "estimated", "actual"));
+        int number = 1;
+        for (Step step : steps) {
+            sb.append(String.format("%-4d %-30s %-6s %10.1f %8s%n", number++, step.condition,
+                    step.indexed ? "index" : "scan", step.estimatedRows,
+                    step.actualRows < 0 ? "-" : String.valueOf(step.actualRows)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Refines the rows of a range of chunks, splitting it in two until it is one chunk. Each
+     * chunk writes its matching rows into its own words of a shared result, which no other chunk
+     * touches as chunks are multiples of 64 rows.
+     */
+    private final class RefineTask extends RecursiveAction {
+        /** Serialization version, as fork join tasks are serializable. */
+        private static final long serialVersionUID = 1L;
+
+        /** The store. */
+        private final GameStore store;
+        /** The seeded selection, only read. */
+        private final BitSet selection;
+        /** First step to run. */
+        private final int first;
+        /** First row, inclusive. */
+        private final int from;
+        /** Last row, exclusive. */
+        private final int to;
+        /** Words of the result, one bit per row. */
+        private final long[] words;
+
+        /**
+         * Constructor for the task.
+         *
+         * @param store the store
+         * @param selection the seeded selection, only read
+         * @param first the first step to run
+         * @param from first row, inclusive
+         * @param to last row, exclusive
+         * @param words words of the result, one bit per row
+         */
+        private RefineTask(GameStore store, BitSet selection, int first, int from, int to,
+                long[] words) {
+            this.store = store;
+            this.selection = selection;
+            this.first = first;
+            this.from = from;
+            this.to = to;
+            this.words = words;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CHUNK_ROWS) {
+                // split on a chunk boundary
+                int mid = from + Math.max(1, (to - from) / 2 / CHUNK_ROWS) * CHUNK_ROWS;
+                invokeAll(new RefineTask(store, selection, first, from, mid, words),
+                        new RefineTask(store, selection, first, mid, to, words));
+                return;
+            }
+            BitSet chunk = Scratch.get().chunk();
+            try {
+                for (int row = selection.nextSetBit(from); row >= 0 && row < to;
+                        row = selection.nextSetBit(row + 1)) {
+                    chunk.set(row);
+                }
+                for (int i = first; i < steps.size() && !chunk.isEmpty(); i++) {
+                    store.refine(steps.get(i).condition, chunk);
+                }
+                for (int row = chunk.nextSetBit(from); row >= 0 && row < to;
+                        row = chunk.nextSetBit(row + 1)) {
+                    words[row / Long.SIZE] |= 1L << row;
+                }
+            } finally {
+                chunk.clear(from, to);
+            }
+        }
+    }
+
+    /**
+     * One condition of the plan, with its estimates.
+     */
+    public static final class Step {
+        /** The condition. */
+        private final FilterCondition condition;
+        /** Estimated fraction of rows the condition keeps on its own. */
+        private final double selectivity;
+        /** Relative per row cost. */
+        private final double cost;
+        /** Whether the step is answered from a range index. */
+        private boolean indexed;
+        /** Estimated rows left after this step. */
+        private double estimatedRows;
+        /** Actual rows left after this step, -1 if not recorded. */
+        private int actualRows = -1;
+
+        /**
+         * Constructor for the step.
+         *
+         * @param condition the condition
+         * @param selectivity estimated fraction of rows kept
+         * @param cost relative per row cost
+         */
+        private Step(FilterCondition condition, double selectivity, double cost) {
+            this.condition = condition;
+            this.selectivity = selectivity;
+            this.cost = cost;
+        }
+
+        /**
+         * Get the condition of the step.
+         *
+         * @return the condition
+         */
+        public FilterCondition getCondition() {
+            return condition;
+        }
+
+        /**
+         * Whether the step is answered from a range index instead of a scan.
+         *
+         * @return true if the step uses an index
+         */
+        public boolean isIndexed() {
+            return indexed;
+        }
+
+        /**
+         * Get the estimated number of rows left after this step.
+         *
+         * @return estimated rows
+         */
+        public double getEstimatedRows() {
+            return estimatedRows;
+        }
+
+        /**
+         * Get the actual number of rows left after this step.
+         *
+         * @return actual rows, or -1 if the plan was not run with recording
+         */
+        public int getActualRows() {
+            return actualRows;
+        }
+    }
+}
@@ -1,22 +1,33 @@
 package student;
 
-import java.util.HashSet;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
 import java.util.stream.Stream;
-import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.ArrayList;
 
 
 public class GameList implements IGameList {
-    /** The set of games in the list. */
-    private final Set<BoardGame> listOfGames;
+    /**
+     * Orders games by lower cased name, as the planner sorts names, then by id, then by name,
+     * consistent with equals.
+     */
+    private static final Comparator<BoardGame> BY_NAME = Comparator
+            .comparing((BoardGame game) -> game.getName().toLowerCase())
+            .thenComparingInt(BoardGame::getId)
+            .thenComparing(BoardGame::getName);
+
+    /** The set of games in the list, kept in name order so names can be found by searching. */
+    private final NavigableSet<BoardGame> listOfGames;
 
     /**
      * Constructor for the GameList.
      */
     public GameList() {
-        this.listOfGames = new HashSet<>();
+        this.listOfGames = new TreeSet<>(BY_NAME);
     }
 
     /**
@@ -28,7 +39,6 @@ public class GameList implements IGameList {
     public List<String> getGameNames() {
         return listOfGames.stream()
                 .map(BoardGame::getName)
-                .sorted((s1, s2) -> s1.toLowerCase().compareTo(s2.toLowerCase()))
                 .collect(Collectors.toList());
     }
 
@@ -86,41 +96,43 @@ public class GameList implements IGameList {
 
         str = str.trim().toLowerCase();
 
-        // Convert filtered stream to list for multiple operations
-        List<BoardGame> filteredList = filtered.collect(Collectors.toList());
+        // Read the filtered stream as a cursor, only as far as needed
+        Iterator<BoardGame> games = filtered.iterator();
 
         // If no games found
-        if (filteredList.isEmpty()) {
+        if (!games.hasNext()) {
             throw new IllegalArgumentException("No games in filtered list");
         }
 
         // Check if we need to add all games
         if (str.equals(IGameList.ADD_ALL)) {
-            listOfGames.addAll(filteredList);
+            games.forEachRemaining(listOfGames::add);
             return;
         }
 
         // Check if we're adding a range
         if (str.contains("-")) {
-            addRange(str, filteredList);
+            addRange(str, games);
             return;
         }
 
         // Try to parse as a number
         try {
             int index = Integer.parseInt(str);
-            if (index < 1 || index > filteredList.size()) {
+            List<BoardGame> first = index < 1 ? List.of() : take(games, index);
+            if (index < 1 || first.size() < index) {
                 throw new IllegalArgumentException("Index out of range: " + index);
             }
-            listOfGames.add(filteredList.get(index - 1));
+            listOfGames.add(first.get(index - 1));
             return;
         } catch (NumberFormatException e) {
             // Not a number, try to find by name
         }
 
-        // Try to find game by name using stream
+        // Try to find game by name, reading only until it is found
         BoardGame matchingGame = null;
-        for (BoardGame game : filteredList) {
+        while (games.hasNext()) {
+            BoardGame game = games.next();
             if (game.getName().equalsIgnoreCase(str)) {
                 matchingGame = game;
                 break;
@@ -136,12 +148,15 @@ public class GameList implements IGameList {
 
     /**
      * Add a range of games to the list.
+     * <p>
+     * Only the games up to the end of the range are read from the filtered games, and nothing is
+     * added unless the whole range is there.
      *
      * @param range The range string (e.g., "1-5")
-     * @param filteredList The list of filtered games
+     * @param games Cursor over the filtered games
      * @throws IllegalArgumentException If the range is invalid
      */
-    private void addRange(String range, List<BoardGame> filteredList) throws IllegalArgumentException {
+    private void addRange(String range, Iterator<BoardGame> games) throws IllegalArgumentException {
         String[] parts = range.split("-");
         if (parts.length != 2) {
             throw new IllegalArgumentException("Invalid range format: " + range);
@@ -151,7 +166,7 @@ public class GameList implements IGameList {
             int start = Integer.parseInt(parts[0]);
             int end = Integer.parseInt(parts[1]);
 
-            if (start < 1 || start > filteredList.size() || end < 1 || end > filteredList.size()) {
+            if (start < 1 || end < 1) {
                 throw new IllegalArgumentException("Range out of bounds: " + range);
             }
 
@@ -159,14 +174,32 @@ public class GameList implements IGameList {
                 throw new IllegalArgumentException("Invalid range (start > end): " + range);
             }
 
-            for (int i = start; i <= end; i++) {
-                listOfGames.add(filteredList.get(i - 1));
+            List<BoardGame> first = take(games, end);
+            if (first.size() < end) {
+                throw new IllegalArgumentException("Range out of bounds: " + range);
             }
+
+            listOfGames.addAll(first.subList(start - 1, end));
         } catch (NumberFormatException e) {
             throw new IllegalArgumentException("Invalid range numbers: " + range);
         }
     }
 
+    /**
+     * Reads up to a number of games from a cursor.
+     *
+     * @param games Cursor over the filtered games
+     * @param count The most games to read
+     * @return The games read, fewer than count if the cursor ran out
+     */
+    private static List<BoardGame> take(Iterator<BoardGame> games, int count) {
+        List<BoardGame> result = new ArrayList<>(Math.min(count, 64));
+        while (result.size() < count && games.hasNext()) {
+            result.add(games.next());
+        }
+        return result;
+    }
+
     /**
      * Removes a game or games from the list based on the given input string.
      * <p>
@@ -189,9 +222,8 @@ public class GameList implements IGameList {
             return;
         }
 
-        // Get the current list of games
+        // Get the current list of games, already in name order
         List<BoardGame> gamesList = new ArrayList<>(listOfGames);
-        gamesList.sort((g1, g2) -> g1.getName().toLowerCase().compareTo(g2.getName().toLowerCase()));
 
         // Check if we're removing a range
         if (str.contains("-")) {
@@ -211,14 +243,8 @@ public class GameList implements IGameList {
             // Not a number, try to find by name
         }
 
-        // Try to find game by name using stream
-        BoardGame matchingGame = null;
-        for (BoardGame game : listOfGames) {
-            if (game.getName().equalsIgnoreCase(str)) { // 直接使用 str
-                matchingGame = game;
-                break;
-            }
-        }
+        // Find the game by name with a search of the sorted set
+        BoardGame matchingGame = findByName(str);
 
         if (matchingGame == null) {
             throw new IllegalArgumentException("Game not found: " + str); // 使用 str
@@ -227,6 +253,19 @@ public class GameList implements IGameList {
         listOfGames.remove(matchingGame);
     }
 
+    /**
+     * Finds the first game in the list with a name, ignoring case.
+     *
+     * @param name the name to find
+     * @return the game, or null if no game in the list has the name
+     */
+    private BoardGame findByName(String name) {
+        // sorts before every game with the same name, whatever its id
+        BoardGame probe = new BoardGame(name, Integer.MIN_VALUE, 0, 0, 0, 0, 0, 0, 0, 0);
+        BoardGame game = listOfGames.ceiling(probe);
+        return game != null && game.getName().equalsIgnoreCase(name) ? game : null;
+    }
+
     /**
      * Remove a range of games from the list.
      *
@@ -0,0 +1,241 @@
+package student;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Writes and reads a binary snapshot of a {@link GameStore}, so a catalogue can be loaded without
+ * parsing csv or sorting.
+ * <p>
+ * The snapshot holds the columns as primitive arrays, the distinct names once each with the name
+ * column as indexes into them, and the row orders of the sort indexes and the name index. Reading
+ * maps the file and copies each array out in bulk. The range indexes and histograms are rebuilt
+ * from the restored sort orders, which needs no sorting, and the trigram index is rebuilt from
+ * the names.
+ * <p>
+ * The layout is a header (magic, format version, the size and modification time of the csv the
+ * store was loaded from, and the number of rows), the arrays, then a CRC32 of everything before
+ * it. A snapshot is only used when all of these check out, otherwise the caller is told to load
+ * the csv again.
+ */
+public final class GameSnapshot {
+    /** Marks a snapshot file, "BGSS". */
+    private static final int MAGIC = 0x42475353;
+    /** Version of the layout, raised whenever it changes so old snapshots are ignored. */
+    private static final int VERSION = 2;
+    /** Bytes in the header. */
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 4;
+    /** Bytes in the trailing checksum. */
+    private static final int CHECKSUM_BYTES = 8;
+    /** Index of a missing name. */
+    private static final int NO_NAME = -1;
+
+    /** Private constructor, static helpers only. */
+    private GameSnapshot() {
+    }
+
+    /**
+     * Writes a snapshot of a store. The file is written next to the target and moved over it,
+     * so a reader never sees half a snapshot.
+     *
+     * @param store the store
+     * @param file the snapshot file, replaced if it exists
+     * @param sourceSize size in bytes of the csv the store was loaded from
+     * @param sourceModified modification time in milliseconds of the csv, when it was loaded
+     * @throws IOException if writing fails
+     */
+    public static void write(GameStore store, Path file, long sourceSize, long sourceModified)
+            throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (OutputStream os = Files.newOutputStream(temp)) {
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new CheckedOutputStream(os, crc)));
+            int size = store.size();
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(sourceSize);
+            out.writeLong(sourceModified);
+            out.writeInt(size);
+
+            Map<String, Integer> dictionary = new HashMap<>();
+            int[] nameIds = new int[size];
+            for (int row = 0; row < size; row++) {
+                String name = store.getName(row);
+                nameIds[row] = name == null ? NO_NAME
+                        : dictionary.computeIfAbsent(name, n -> dictionary.size());
+            }
+            String[] names = new String[dictionary.size()];
+            dictionary.forEach((name, id) -> names[id] = name);
+            out.writeInt(names.length);
+            for (String name : names) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            writeInts(out, nameIds);
+
+            for (GameData column : GameData.values()) {
+                if (column == GameData.NAME) {
+                    continue;
+                }
+                if (GameStore.isDoubleColumn(column)) {
+                    for (double value : store.doubleColumn(column)) {
+                        out.writeLong(Double.doubleToRawLongBits(value));
+                    }
+                } else {
+                    writeInts(out, store.intColumn(column));
+                }
+            }
+
+            for (GameData column : GameData.values()) {
+                if (column == GameData.ID) {
+                    continue; // id sorts by name
+                }
+                SortIndex index = store.sortIndex(column);
+                for (int i = 0; i < index.size(); i++) {
+                    out.writeInt(index.rowAt(i));
+                }
+            }
+            NameIndex nameIndex = store.nameIndex();
+            out.writeInt(nameIndex.size());
+            for (int i = 0; i < nameIndex.size(); i++) {
+                out.writeInt(nameIndex.rowAt(i));
+            }
+            out.flush();
+            os.write(ByteBuffer.allocate(CHECKSUM_BYTES).putLong(crc.getValue()).array());
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a snapshot, if it is for the given csv and intact.
+     *
+     * @param file the snapshot file
+     * @param sourceSize size in bytes of the csv now
+     * @param sourceModified modification time in milliseconds of the csv now
+     * @return the store, or null if there is no snapshot, it is for another version of the csv
+     *         or of the layout, or it is damaged
+     * @throws IOException if the snapshot exists but cannot be read
+     */
+    public static GameStore read(Path file, long sourceSize, long sourceModified)
+            throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES + CHECKSUM_BYTES
+                    || channel.size() > Integer.MAX_VALUE) {
+                return null;
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                || buffer.getLong() != sourceSize || buffer.getLong() != sourceModified) {
+            return null;
+        }
+        int end = buffer.limit() - CHECKSUM_BYTES;
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(0).limit(end));
+        if (crc.getValue() != buffer.getLong(end)) {
+            return null;
+        }
+        buffer.limit(end);
+
+        try {
+            int size = buffer.getInt();
+            String[] dictionary = new String[buffer.getInt()];
+            for (int i = 0; i < dictionary.length; i++) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            String[] names = new String[size];
+            int[] nameIds = readInts(buffer, size);
+            for (int row = 0; row < size; row++) {
+                names[row] = nameIds[row] == NO_NAME ? null : dictionary[nameIds[row]];
+            }
+
+            int[][] ints = new int[GameData.values().length][];
+            double[][] doubles = new double[GameData.values().length][];
+            for (GameData column : GameData.values()) {
+                if (column == GameData.NAME) {
+                    continue;
+                }
+                if (GameStore.isDoubleColumn(column)) {
+                    double[] values = new double[size];
+                    buffer.asDoubleBuffer().get(values);
+                    buffer.position(buffer.position() + size * Double.BYTES);
+                    doubles[column.ordinal()] = values;
+                } else {
+                    ints[column.ordinal()] = readInts(buffer, size);
+                }
+            }
+
+            int[][] sortOrders = new int[GameData.values().length][];
+            for (GameData column : GameData.values()) {
+                if (column != GameData.ID) {
+                    sortOrders[column.ordinal()] = readInts(buffer, size);
+                }
+            }
+            int[] nameOrder = readInts(buffer, buffer.getInt());
+            if (buffer.hasRemaining()) {
+                return null;
+            }
+
+            GameStore.Builder builder = GameStore.Builder.wrap(names,
+                    ints[GameData.ID.ordinal()], ints[GameData.MIN_PLAYERS.ordinal()],
+                    ints[GameData.MAX_PLAYERS.ordinal()], ints[GameData.MIN_TIME.ordinal()],
+                    ints[GameData.MAX_TIME.ordinal()], doubles[GameData.DIFFICULTY.ordinal()],
+                    ints[GameData.RANK.ordinal()], doubles[GameData.RATING.ordinal()],
+                    ints[GameData.YEAR.ordinal()]);
+            return GameStore.restore(builder, sortOrders, nameOrder);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException
+                | NegativeArraySizeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes an array of ints.
+     *
+     * @param out where to write
+     * @param values the values
+     * @throws IOException if writing fails
+     */
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * Reads an array of ints in bulk, moving the buffer past them.
+     *
+     * @param buffer the buffer
+     * @param count the number of ints
+     * @return the values
+     */
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        return values;
+    }
+}
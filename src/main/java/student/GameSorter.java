@@ -19,7 +19,8 @@ public final class GameSorter {
      */
     public static Comparator<BoardGame> sortFilteredGames(GameData sortOn, boolean ascending) {
         Comparator<BoardGame> comparator = getBaseComparator(sortOn)
-                .thenComparing(g -> g.getName().toLowerCase());
+                .thenComparing(g -> g.getName().toLowerCase())
+                .thenComparingInt(BoardGame::getId);
 
         return ascending ? comparator : comparator.reversed();
     }
@@ -0,0 +1,921 @@
+package student;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Column based storage for a collection of board games.
+ * <p>
+ * Each GameData column is stored in its own primitive array (ints for the whole number columns,
+ * doubles for rating and difficulty), indexed by row. Names are interned through a dictionary as
+ * they are added, and kept lower cased once so contains filters do not need to lower case each
+ * name per query.
+ * <p>
+ * Filters are evaluated as loops over the primitive arrays, producing a {@link BitSet} of matching
+ * rows. A {@link SortIndex} is built for every column when the store is built, so matching rows
+ * can be put in order without sorting, and a {@link RangeIndex} and {@link ColumnHistogram} for
+ * every numeric column, so numeric conditions can be estimated and answered with a binary search
+ * instead of a scan. Other name conditions use a case insensitive {@link NameIndex}, and name
+ * contains conditions a {@link TrigramIndex}. BoardGame objects are only needed for the final
+ * result: if the store was built from existing BoardGame objects it hands those back, otherwise
+ * they are built from the columns when asked for.
+ * <p>
+ * A store is immutable once built.
+ */
+public final class GameStore {
+    /** Below this many rows per selected row, name conditions check each selected row instead. */
+    private static final int NAME_SCAN_RATIO = 16;
+
+    /** Number of rows in the store. */
+    private final int size;
+    /** Names, as loaded. */
+    private final String[] names;
+    /** Names, lower cased. */
+    private final String[] lowerNames;
+    /** Unique identifiers. */
+    private final int[] ids;
+    /** Minimum number of players. */
+    private final int[] minPlayers;
+    /** Maximum number of players. */
+    private final int[] maxPlayers;
+    /** Minimum play time in minutes. */
+    private final int[] minPlayTimes;
+    /** Maximum play time in minutes. */
+    private final int[] maxPlayTimes;
+    /** Rank of the game. */
+    private final int[] ranks;
+    /** Year the game was published. */
+    private final int[] years;
+    /** Average rating. */
+    private final double[] ratings;
+    /** Average difficulty. */
+    private final double[] difficulties;
+    /** The games the store was built from, null if it was built from raw values. */
+    private final BoardGame[] games;
+    /** Sort index for each column, by GameData ordinal. */
+    private final SortIndex[] sortIndexes;
+    /** Range index for each numeric column, by GameData ordinal, null for name and id. */
+    private final RangeIndex[] rangeIndexes;
+    /** Histogram for each numeric column, by GameData ordinal, null for name and id. */
+    private final ColumnHistogram[] histograms;
+    /** Each row packed below its id, sorted, so rows can be found by id. */
+    private final long[] idRows;
+    /** Case insensitive sorted index over the names. */
+    private final NameIndex nameIndex;
+    /** Trigram index over the lower cased names. */
+    private final TrigramIndex trigramIndex;
+
+    /**
+     * Constructor for the store, use {@link #of(Collection)} or a {@link Builder}.
+     *
+     * @param builder the builder holding the columns
+     * @param games the games the columns came from, or null
+     * @param lowerNames the names lower cased, or null to lower case them
+     * @param idRows the id lookup, or null to build it
+     * @param sorts makes the sort index of a column once the columns are set, id excluded
+     * @param nameIndexer makes the name index once the columns are set
+     * @param trigramIndexer makes the trigram index once the columns are set
+     */
+    private GameStore(Builder builder, BoardGame[] games, String[] lowerNames, long[] idRows,
+            BiFunction<GameStore, GameData, SortIndex> sorts,
+            Function<GameStore, NameIndex> nameIndexer,
+            Function<GameStore, TrigramIndex> trigramIndexer) {
+        this.size = builder.size;
+        // columns made for this store alone are taken as they are
+        boolean copy = !builder.owned || builder.ids.length != size;
+        this.names = copy ? Arrays.copyOf(builder.names, size) : builder.names;
+        if (lowerNames != null) {
+            this.lowerNames = lowerNames;
+        } else {
+            this.lowerNames = new String[size];
+            for (int i = 0; i < size; i++) {
+                this.lowerNames[i] = names[i] == null ? null : names[i].toLowerCase();
+            }
+        }
+        this.ids = copy ? Arrays.copyOf(builder.ids, size) : builder.ids;
+        this.minPlayers = copy ? Arrays.copyOf(builder.minPlayers, size) : builder.minPlayers;
+        this.maxPlayers = copy ? Arrays.copyOf(builder.maxPlayers, size) : builder.maxPlayers;
+        this.minPlayTimes = copy ? Arrays.copyOf(builder.minPlayTimes, size)
+                : builder.minPlayTimes;
+        this.maxPlayTimes = copy ? Arrays.copyOf(builder.maxPlayTimes, size)
+                : builder.maxPlayTimes;
+        this.ranks = copy ? Arrays.copyOf(builder.ranks, size) : builder.ranks;
+        this.years = copy ? Arrays.copyOf(builder.years, size) : builder.years;
+        this.ratings = copy ? Arrays.copyOf(builder.ratings, size) : builder.ratings;
+        this.difficulties = copy ? Arrays.copyOf(builder.difficulties, size)
+                : builder.difficulties;
+        this.games = games;
+        this.sortIndexes = new SortIndex[GameData.values().length];
+        for (GameData column : GameData.values()) {
+            if (column == GameData.ID) {
+                sortIndexes[column.ordinal()] = sortIndexes[GameData.NAME.ordinal()]; // by name
+            } else {
+                sortIndexes[column.ordinal()] = sorts.apply(this, column);
+            }
+        }
+        this.rangeIndexes = new RangeIndex[GameData.values().length];
+        this.histograms = new ColumnHistogram[GameData.values().length];
+        for (GameData column : GameData.values()) {
+            if (RangeIndex.supports(column)) {
+                rangeIndexes[column.ordinal()] = new RangeIndex(this, column);
+                histograms[column.ordinal()] = new ColumnHistogram(this, column);
+            }
+        }
+        if (idRows != null) {
+            this.idRows = idRows;
+        } else {
+            this.idRows = new long[size];
+            for (int i = 0; i < size; i++) {
+                this.idRows[i] = idRow(ids[i], i);
+            }
+            Arrays.sort(this.idRows);
+        }
+        this.nameIndex = nameIndexer.apply(this);
+        this.trigramIndex = trigramIndexer.apply(this);
+    }
+
+    /**
+     * Builds a store from existing games. The games are kept, and returned for results.
+     *
+     * @param games the games to store
+     * @return the store
+     */
+    public static GameStore of(Collection<BoardGame> games) {
+        Builder builder = new Builder(games.size());
+        BoardGame[] source = new BoardGame[games.size()];
+        for (BoardGame game : games) {
+            source[builder.size] = game;
+            builder.add(game);
+        }
+        builder.owned = true;
+        return new GameStore(builder, source, null, null, SortIndex::build, NameIndex::new,
+                TrigramIndex::new);
+    }
+
+    /**
+     * Restores a store from columns and index orders kept by a {@link GameSnapshot}, without
+     * sorting anything.
+     *
+     * @param builder the builder holding the columns
+     * @param sortOrders ascending row order of each column by GameData ordinal, the entry for id
+     *        is not used as id sorts by name
+     * @param nameOrder rows with a name, in case insensitive name order
+     * @return the store
+     */
+    static GameStore restore(Builder builder, int[][] sortOrders, int[] nameOrder) {
+        return new GameStore(builder, null, null, null,
+                (store, column) -> SortIndex.of(column, sortOrders[column.ordinal()]),
+                store -> new NameIndex(store, nameOrder), TrigramIndex::new);
+    }
+
+    /**
+     * Applies a batch of changes, giving a new store. This store is not changed, so readers of it
+     * never see part of a batch.
+     * <p>
+     * The rows of games that are not changed keep their relative order and come first, followed
+     * by the upserted games in the order of the batch. Rather than sorting again, each sort index
+     * and the name index renumber the kept rows in their existing order, sort only the added rows
+     * and merge the two, so a batch of k changes costs a linear pass plus O(k log k) per index.
+     * The id lookup is merged the same way, and the trigram index renumbers the kept rows of its
+     * posting lists and adds only the names of the added rows. The range indexes and histograms
+     * follow from the sort indexes. The new columns are handed to the new store without another
+     * copy.
+     *
+     * @param update the changes
+     * @return the new store, or this store if the update is empty
+     */
+    public GameStore apply(CatalogueUpdate update) {
+        if (update.isEmpty()) {
+            return this;
+        }
+        Map<Integer, BoardGame> changes = update.changes();
+        BitSet removed = new BitSet(size);
+        int added = 0;
+        for (Map.Entry<Integer, BoardGame> change : changes.entrySet()) {
+            for (int row : rowsWithId(change.getKey())) {
+                removed.set(row);
+            }
+            if (change.getValue() != null) {
+                added++;
+            }
+        }
+        int kept = size - removed.cardinality();
+        int total = kept + added;
+
+        Builder builder = Builder.wrap(new String[total], new int[total], new int[total],
+                new int[total], new int[total], new int[total], new double[total], new int[total],
+                new double[total], new int[total]);
+        builder.size = 0;
+        String[] lower = new String[total];
+        BoardGame[] result = games == null ? null : new BoardGame[total];
+        int[] renumber = new int[size];
+        for (int row = 0; row < size; row++) {
+            if (removed.get(row)) {
+                renumber[row] = -1;
+                continue;
+            }
+            int to = builder.size;
+            renumber[row] = to;
+            builder.names[to] = names[row];
+            lower[to] = lowerNames[row];
+            builder.ids[to] = ids[row];
+            builder.minPlayers[to] = minPlayers[row];
+            builder.maxPlayers[to] = maxPlayers[row];
+            builder.minPlayTimes[to] = minPlayTimes[row];
+            builder.maxPlayTimes[to] = maxPlayTimes[row];
+            builder.difficulties[to] = difficulties[row];
+            builder.ranks[to] = ranks[row];
+            builder.ratings[to] = ratings[row];
+            builder.years[to] = years[row];
+            if (result != null) {
+                result[to] = games[row];
+            }
+            builder.size++;
+        }
+        for (BoardGame game : changes.values()) {
+            if (game == null) {
+                continue;
+            }
+            lower[builder.size] = game.getName() == null ? null : game.getName().toLowerCase();
+            if (result != null) {
+                result[builder.size] = game;
+            }
+            builder.add(game);
+        }
+        return new GameStore(builder, result, lower,
+                mergeIdRows(idRows, renumber, kept, builder.ids),
+                (store, column) -> SortIndex.merge(sortIndex(column), renumber, kept, store),
+                store -> NameIndex.merge(nameIndex, renumber, kept, store),
+                store -> TrigramIndex.merge(trigramIndex, renumber, kept, store));
+    }
+
+    /**
+     * Builds the id lookup of a store made by changing this one, from this store's lookup.
+     * <p>
+     * The entries of kept rows stay in order when renumbered, since kept rows keep their
+     * relative order, so only the entries of the added rows are sorted before the two runs are
+     * merged, from the back so no other array is needed.
+     *
+     * @param previous the id lookup of the earlier store
+     * @param renumber the row of each earlier row in the new store, or -1 if it was removed
+     * @param firstAdded the first row added to the new store, every row before it was kept
+     * @param ids the ids of the new store, one per row
+     * @return the id lookup
+     */
+    private static long[] mergeIdRows(long[] previous, int[] renumber, int firstAdded,
+            int[] ids) {
+        long[] result = new long[ids.length];
+        int kept = 0;
+        for (long entry : previous) {
+            int row = renumber[(int) entry];
+            if (row >= 0) {
+                result[kept++] = idRow((int) (entry >> 32), row);
+            }
+        }
+        long[] added = new long[ids.length - firstAdded];
+        for (int i = 0; i < added.length; i++) {
+            added[i] = idRow(ids[firstAdded + i], firstAdded + i);
+        }
+        Arrays.sort(added);
+        int i = kept - 1;
+        int j = added.length - 1;
+        for (int k = result.length - 1; j >= 0; k--) {
+            result[k] = i >= 0 && result[i] > added[j] ? result[i--] : added[j--];
+        }
+        return result;
+    }
+
+    /**
+     * Packs an id and a row into an entry of the id lookup, which sorts by id then row.
+     *
+     * @param id the id
+     * @param row the row
+     * @return the entry
+     */
+    private static long idRow(int id, int row) {
+        return ((long) id << 32) | row;
+    }
+
+    /**
+     * Get the number of games in the store.
+     *
+     * @return the number of games
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the game at a row, building it from the columns if needed.
+     *
+     * @param row the row
+     * @return the game
+     */
+    public BoardGame get(int row) {
+        if (games != null) {
+            return games[row];
+        }
+        return new BoardGame(names[row], ids[row], minPlayers[row], maxPlayers[row],
+                minPlayTimes[row], maxPlayTimes[row], difficulties[row], ranks[row], ratings[row],
+                years[row]);
+    }
+
+    /**
+     * Get the games for the set rows, in row order.
+     *
+     * @param rows the rows to get
+     * @return list of games
+     */
+    public List<BoardGame> get(BitSet rows) {
+        List<BoardGame> result = new ArrayList<>(rows.cardinality());
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            result.add(get(row));
+        }
+        return result;
+    }
+
+    /**
+     * Get the name at a row.
+     *
+     * @param row the row
+     * @return the name
+     */
+    public String getName(int row) {
+        return names[row];
+    }
+
+    /**
+     * Get the lower cased name at a row.
+     *
+     * @param row the row
+     * @return the lower cased name
+     */
+    public String getLowerName(int row) {
+        return lowerNames[row];
+    }
+
+    /**
+     * Get the id at a row.
+     *
+     * @param row the row
+     * @return the id
+     */
+    public int getId(int row) {
+        return ids[row];
+    }
+
+    /**
+     * Finds the rows holding a game id.
+     *
+     * @param id the id
+     * @return the rows with the id in row order, usually one, empty if there are none
+     */
+    public int[] rowsWithId(int id) {
+        long first = (long) id << 32;
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (idRows[mid] < first) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int end = low;
+        while (end < size && (int) (idRows[end] >> 32) == id) {
+            end++;
+        }
+        int[] rows = new int[end - low];
+        for (int i = low; i < end; i++) {
+            rows[i - low] = (int) idRows[i];
+        }
+        return rows;
+    }
+
+    /**
+     * Get the sort key of a row for a column as text: the name for name and id, the value
+     * otherwise.
+     *
+     * @param row the row
+     * @param column the column
+     * @return the sort key
+     */
+    public String sortKey(int row, GameData column) {
+        if (column == GameData.NAME || column == GameData.ID) {
+            return names[row];
+        }
+        if (isDoubleColumn(column)) {
+            return String.valueOf(doubleColumn(column)[row]);
+        }
+        return String.valueOf(intColumn(column)[row]);
+    }
+
+    /**
+     * Get the value a row sorts by in a column, before its name and id.
+     *
+     * @param row the row
+     * @param column the column
+     * @return the value, 0 for name and id, which sort by the name alone
+     */
+    double sortValue(int row, GameData column) {
+        if (column == GameData.NAME || column == GameData.ID) {
+            return 0;
+        }
+        return isDoubleColumn(column) ? doubleColumn(column)[row] : intColumn(column)[row];
+    }
+
+    /**
+     * Get the sort index for a column.
+     *
+     * @param column the column to sort on
+     * @return the sort index
+     */
+    public SortIndex sortIndex(GameData column) {
+        return sortIndexes[column.ordinal()];
+    }
+
+    /**
+     * Get the range index for a numeric column.
+     *
+     * @param column the column
+     * @return the range index, or null if the column is name or id
+     */
+    public RangeIndex rangeIndex(GameData column) {
+        return rangeIndexes[column.ordinal()];
+    }
+
+    /**
+     * Get the histogram for a numeric column.
+     *
+     * @param column the column
+     * @return the histogram, or null if the column is name or id
+     */
+    public ColumnHistogram histogram(GameData column) {
+        return histograms[column.ordinal()];
+    }
+
+    /**
+     * Get the case insensitive sorted index over the names.
+     *
+     * @return the name index
+     */
+    public NameIndex nameIndex() {
+        return nameIndex;
+    }
+
+    /**
+     * Get the trigram index over the names.
+     *
+     * @return the trigram index
+     */
+    public TrigramIndex trigramIndex() {
+        return trigramIndex;
+    }
+
+    /**
+     * Get the games for rows, in the order given.
+     *
+     * @param rows the rows to get
+     * @return list of games
+     */
+    public List<BoardGame> get(int[] rows) {
+        List<BoardGame> result = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            result.add(get(row));
+        }
+        return result;
+    }
+
+    /**
+     * Get the column array for an int based column.
+     *
+     * @param column the column
+     * @return the backing array, must not be modified
+     * @throws IllegalArgumentException if the column is not int based
+     */
+    int[] intColumn(GameData column) {
+        switch (column) {
+            case ID:
+                return ids;
+            case MIN_PLAYERS:
+                return minPlayers;
+            case MAX_PLAYERS:
+                return maxPlayers;
+            case MIN_TIME:
+                return minPlayTimes;
+            case MAX_TIME:
+                return maxPlayTimes;
+            case RANK:
+                return ranks;
+            case YEAR:
+                return years;
+            default:
+                throw new IllegalArgumentException("Not an int column: " + column);
+        }
+    }
+
+    /**
+     * Get the column array for a double based column.
+     *
+     * @param column the column
+     * @return the backing array, must not be modified
+     * @throws IllegalArgumentException if the column is not double based
+     */
+    double[] doubleColumn(GameData column) {
+        switch (column) {
+            case RATING:
+                return ratings;
+            case DIFFICULTY:
+                return difficulties;
+            default:
+                throw new IllegalArgumentException("Not a double column: " + column);
+        }
+    }
+
+    /**
+     * Whether a column is stored as doubles.
+     *
+     * @param column the column
+     * @return true for rating and difficulty
+     */
+    static boolean isDoubleColumn(GameData column) {
+        return column == GameData.RATING || column == GameData.DIFFICULTY;
+    }
+
+    /**
+     * Selects the rows matching a compiled filter, evaluating the conditions in the order chosen
+     * by {@link FilterPlan#plan(GameStore, CompiledFilter)}.
+     *
+     * @param filter the compiled filter
+     * @param out bitset to receive the matching rows, cleared first
+     */
+    public void select(CompiledFilter filter, BitSet out) {
+        if (filter.matchesNothing()) {
+            out.clear();
+            return;
+        }
+        filter.planFor(this).execute(this, out);
+    }
+
+    /**
+     * Selects the rows matching a compiled filter, refining chunks of rows in parallel on a fork
+     * join pool. The rows selected are the same as {@link #select(CompiledFilter, BitSet)}.
+     *
+     * @param filter the compiled filter
+     * @param out bitset to receive the matching rows, cleared first
+     * @param pool the pool to run on
+     */
+    public void select(CompiledFilter filter, BitSet out, ForkJoinPool pool) {
+        if (filter.matchesNothing()) {
+            out.clear();
+            return;
+        }
+        filter.planFor(this).execute(this, out, pool);
+    }
+
+    /**
+     * Clears the selected rows that do not match a condition (an AND into the selection).
+     * <p>
+     * Only the rows still selected are visited, in one pass over the column. Name conditions
+     * on a large selection are answered from the name or trigram index instead.
+     *
+     * @param condition the condition
+     * @param selection the selected rows, updated in place
+     */
+    public void refine(FilterCondition condition, BitSet selection) {
+        if (condition.matchesNothing()) {
+            selection.clear();
+            return;
+        }
+        GameData column = condition.getColumn();
+        if (column == GameData.NAME && condition.getOperator() == Operations.CONTAINS) {
+            trigramIndex.refine(condition.getLowerText(), selection);
+        } else if (column == GameData.NAME
+                && (long) selection.cardinality() * NAME_SCAN_RATIO >= size) {
+            nameIndex.refine(condition, selection);
+        } else if (column == GameData.NAME) {
+            for (int row = selection.nextSetBit(0); row >= 0;
+                    row = selection.nextSetBit(row + 1)) {
+                if (!matches(condition, row)) {
+                    selection.clear(row);
+                }
+            }
+        } else if (isDoubleColumn(column)) {
+            double[] values = doubleColumn(column);
+            for (int row = selection.nextSetBit(0); row >= 0;
+                    row = selection.nextSetBit(row + 1)) {
+                if (!condition.testDouble(values[row])) {
+                    selection.clear(row);
+                }
+            }
+        } else {
+            int[] values = intColumn(column);
+            for (int row = selection.nextSetBit(0); row >= 0;
+                    row = selection.nextSetBit(row + 1)) {
+                if (!condition.testInt(values[row])) {
+                    selection.clear(row);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if the game at a row matches a condition.
+     *
+     * @param condition the condition
+     * @param row the row
+     * @return true if the game matches
+     */
+    boolean matches(FilterCondition condition, int row) {
+        GameData column = condition.getColumn();
+        if (column == GameData.NAME) {
+            if (condition.getOperator() == Operations.CONTAINS) {
+                return lowerNames[row] != null
+                        && lowerNames[row].contains(condition.getLowerText());
+            }
+            return condition.testString(names[row]);
+        }
+        if (isDoubleColumn(column)) {
+            return condition.testDouble(doubleColumn(column)[row]);
+        }
+        return condition.testInt(intColumn(column)[row]);
+    }
+
+    /**
+     * Builds a store a row at a time.
+     * <p>
+     * Names are interned through a dictionary so repeated names share one String.
+     */
+    public static final class Builder {
+        /** Number of rows added. */
+        private int size;
+        /** Dictionary used to intern names. */
+        private final Map<String, String> dictionary = new HashMap<>();
+        /** Names. */
+        private String[] names;
+        /** Unique identifiers. */
+        private int[] ids;
+        /** Minimum number of players. */
+        private int[] minPlayers;
+        /** Maximum number of players. */
+        private int[] maxPlayers;
+        /** Minimum play time in minutes. */
+        private int[] minPlayTimes;
+        /** Maximum play time in minutes. */
+        private int[] maxPlayTimes;
+        /** Rank of the game. */
+        private int[] ranks;
+        /** Year the game was published. */
+        private int[] years;
+        /** Average rating. */
+        private double[] ratings;
+        /** Average difficulty. */
+        private double[] difficulties;
+        /** Whether the columns are no longer added to, so a store may take them as they are. */
+        private boolean owned;
+
+        /**
+         * Constructor for the builder.
+         */
+        public Builder() {
+            this(16);
+        }
+
+        /**
+         * Constructor for the builder with an expected number of rows.
+         *
+         * @param expectedSize the expected number of rows
+         */
+        public Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 1);
+            names = new String[capacity];
+            ids = new int[capacity];
+            minPlayers = new int[capacity];
+            maxPlayers = new int[capacity];
+            minPlayTimes = new int[capacity];
+            maxPlayTimes = new int[capacity];
+            ranks = new int[capacity];
+            years = new int[capacity];
+            ratings = new double[capacity];
+            difficulties = new double[capacity];
+        }
+
+        /**
+         * Get the number of rows added so far.
+         *
+         * @return the number of rows
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Adds a game.
+         *
+         * @param game the game to add
+         * @return this builder
+         */
+        public Builder add(BoardGame game) {
+            return add(game.getName(), game.getId(), game.getMinPlayers(), game.getMaxPlayers(),
+                    game.getMinPlayTime(), game.getMaxPlayTime(), game.getDifficulty(),
+                    game.getRank(), game.getRating(), game.getYearPublished());
+        }
+
+        /**
+         * Adds a game from its values, in the same order as the BoardGame constructor.
+         *
+         * @param name game name
+         * @param id unique identifier
+         * @param minPlayer minimum number of players
+         * @param maxPlayer maximum number of players
+         * @param minPlayTime minimum play time in minutes
+         * @param maxPlayTime maximum play time in minutes
+         * @param difficulty average difficulty of the game
+         * @param rank rank of the game
+         * @param rating average rating of the game
+         * @param year year the game was published
+         * @return this builder
+         */
+        public Builder add(String name, int id, int minPlayer, int maxPlayer, int minPlayTime,
+                int maxPlayTime, double difficulty, int rank, double rating, int year) {
+            if (size == ids.length) {
+                grow();
+            }
+            names[size] = name == null ? null : dictionary.computeIfAbsent(name, n -> n);
+            ids[size] = id;
+            minPlayers[size] = minPlayer;
+            maxPlayers[size] = maxPlayer;
+            minPlayTimes[size] = minPlayTime;
+            maxPlayTimes[size] = maxPlayTime;
+            difficulties[size] = difficulty;
+            ranks[size] = rank;
+            ratings[size] = rating;
+            years[size] = year;
+            size++;
+            return this;
+        }
+
+        /**
+         * Creates a builder over existing columns, which become the builder's own and must not
+         * be changed by the caller. The names are not interned again, and the store built from
+         * the builder takes the columns without copying them.
+         *
+         * @param names game names
+         * @param ids unique identifiers
+         * @param minPlayers minimum numbers of players
+         * @param maxPlayers maximum numbers of players
+         * @param minPlayTimes minimum play times in minutes
+         * @param maxPlayTimes maximum play times in minutes
+         * @param difficulties average difficulties
+         * @param ranks ranks
+         * @param ratings average ratings
+         * @param years years published
+         * @return the builder, holding one row per entry of the columns
+         */
+        static Builder wrap(String[] names, int[] ids, int[] minPlayers, int[] maxPlayers,
+                int[] minPlayTimes, int[] maxPlayTimes, double[] difficulties, int[] ranks,
+                double[] ratings, int[] years) {
+            Builder builder = new Builder(0);
+            builder.names = names;
+            builder.ids = ids;
+            builder.minPlayers = minPlayers;
+            builder.maxPlayers = maxPlayers;
+            builder.minPlayTimes = minPlayTimes;
+            builder.maxPlayTimes = maxPlayTimes;
+            builder.difficulties = difficulties;
+            builder.ranks = ranks;
+            builder.ratings = ratings;
+            builder.years = years;
+            builder.size = ids.length;
+            builder.owned = true;
+            return builder;
+        }
+
+        /**
+         * Adds every row of another builder, in order, after the rows of this one.
+         *
+         * @param other the builder to add the rows of
+         * @return this builder
+         */
+        Builder addAll(Builder other) {
+            while (ids.length < size + other.size) {
+                grow();
+            }
+            for (int i = 0; i < other.size; i++) {
+                String name = other.names[i];
+                names[size + i] = name == null ? null : dictionary.computeIfAbsent(name, n -> n);
+            }
+            System.arraycopy(other.ids, 0, ids, size, other.size);
+            System.arraycopy(other.minPlayers, 0, minPlayers, size, other.size);
+            System.arraycopy(other.maxPlayers, 0, maxPlayers, size, other.size);
+            System.arraycopy(other.minPlayTimes, 0, minPlayTimes, size, other.size);
+            System.arraycopy(other.maxPlayTimes, 0, maxPlayTimes, size, other.size);
+            System.arraycopy(other.difficulties, 0, difficulties, size, other.size);
+            System.arraycopy(other.ranks, 0, ranks, size, other.size);
+            System.arraycopy(other.ratings, 0, ratings, size, other.size);
+            System.arraycopy(other.years, 0, years, size, other.size);
+            size += other.size;
+            return this;
+        }
+
+        /**
+         * Get a game added so far.
+         *
+         * @param row the row of the game
+         * @return the game, built from the columns
+         */
+        BoardGame get(int row) {
+            return new BoardGame(names[row], ids[row], minPlayers[row], maxPlayers[row],
+                    minPlayTimes[row], maxPlayTimes[row], difficulties[row], ranks[row],
+                    ratings[row], years[row]);
+        }
+
+        /**
+         * Removes every row that repeats the name and id of an earlier row, as adding the games
+         * to a set would. The first of the repeated rows is kept, and the order of the rest is
+         * unchanged.
+         *
+         * @return this builder
+         */
+        public Builder distinct() {
+            long[] byId = new long[size];
+            for (int i = 0; i < size; i++) {
+                byId[i] = ((long) ids[i] << 32) | i;
+            }
+            Arrays.sort(byId);
+            BitSet repeated = new BitSet(size);
+            int runStart = 0;
+            for (int i = 1; i < size; i++) {
+                if ((int) (byId[i] >> 32) != (int) (byId[runStart] >> 32)) {
+                    runStart = i;
+                    continue;
+                }
+                int row = (int) byId[i];
+                for (int j = runStart; j < i; j++) {
+                    if (Objects.equals(names[(int) byId[j]], names[row])) {
+                        repeated.set(row);
+                        break;
+                    }
+                }
+            }
+            if (repeated.isEmpty()) {
+                return this;
+            }
+            int kept = 0;
+            for (int row = 0; row < size; row++) {
+                if (repeated.get(row)) {
+                    continue;
+                }
+                names[kept] = names[row];
+                ids[kept] = ids[row];
+                minPlayers[kept] = minPlayers[row];
+                maxPlayers[kept] = maxPlayers[row];
+                minPlayTimes[kept] = minPlayTimes[row];
+                maxPlayTimes[kept] = maxPlayTimes[row];
+                difficulties[kept] = difficulties[row];
+                ranks[kept] = ranks[row];
+                ratings[kept] = ratings[row];
+                years[kept] = years[row];
+                kept++;
+            }
+            Arrays.fill(names, kept, size, null);
+            size = kept;
+            return this;
+        }
+
+        /**
+         * Builds the store. The games are built from the columns when asked for.
+         *
+         * @return the store
+         */
+        public GameStore build() {
+            return new GameStore(this, null, null, null, SortIndex::build, NameIndex::new,
+                    TrigramIndex::new);
+        }
+
+        /** Doubles the capacity of every column. */
+        private void grow() {
+            int capacity = Math.max(16, ids.length * 2);
+            names = Arrays.copyOf(names, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            minPlayers = Arrays.copyOf(minPlayers, capacity);
+            maxPlayers = Arrays.copyOf(maxPlayers, capacity);
+            minPlayTimes = Arrays.copyOf(minPlayTimes, capacity);
+            maxPlayTimes = Arrays.copyOf(maxPlayTimes, capacity);
+            ranks = Arrays.copyOf(ranks, capacity);
+            years = Arrays.copyOf(years, capacity);
+            ratings = Arrays.copyOf(ratings, capacity);
+            difficulties = Arrays.copyOf(difficulties, capacity);
+        }
+    }
+}
@@ -1,28 +1,44 @@
 package student;
 
-import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
- * Loads the games from the csv file into a set of BoardGame objects.
+ * Loads the games from the csv file into a set of BoardGame objects, or straight into a
+ * GameStore.
  * This file is stored in the resources folder, and while it is
  * passed in - often tends to be more fixed.
  * 
- * It assumes there are no comma's in the data (and does not handle errors if
- * there are extra commas like in the name).
+ * The bytes are parsed by {@link CsvParser}, which handles quoted fields (so names can hold
+ * commas) and skips rows that are too short or have a value that is not a number.
  * 
  */
 public final class GamesLoader {
-    /** Standard csv delim. */
-    private static final String DELIMITER = ",";
+    /** Files of at least this many bytes are parsed in parallel by {@link #loadStore(Path)}. */
+    public static final long PARALLEL_LOAD_BYTES = 1L << 23;
+    /** Smallest part of a file parsed by one task. */
+    private static final long MIN_CHUNK_BYTES = 1L << 16;
+    /** Largest part of a file parsed by one task, each part is mapped whole. */
+    private static final long MAX_CHUNK_BYTES = 1L << 26;
+    /** Parts per pool thread, so threads that finish early can take more. */
+    private static final int CHUNKS_PER_THREAD = 4;
+    /** Bytes read at a time while looking for the end of a line. */
+    private static final int LINE_SCAN_BYTES = 4096;
 
     /** private constructor to prevent instantiation. */
     private GamesLoader() {
@@ -31,6 +47,8 @@ public final class GamesLoader {
     /**
      * Loads the games from the csv file into a set of BoardGame objects.
      * 
+     * The file is parsed a chunk at a time, so only the games are kept in memory, not the text.
+     * 
      * @param filename the name of the file to load
      * @return a set of BoardGame objects
      */
@@ -38,83 +56,224 @@ public final class GamesLoader {
 
         Set<BoardGame> games = new HashSet<>();
 
-        List<String> lines;
-        try {
-            // this is so we can store the files in the resources folder
-            InputStream is = GamesLoader.class.getResourceAsStream(filename);
-            InputStreamReader isr = new InputStreamReader(is, StandardCharsets.UTF_8);
-            BufferedReader reader = new BufferedReader(isr);
-            lines = reader.lines().collect(Collectors.toList());
+        GameStore.Builder builder = new GameStore.Builder();
+        // this is so we can store the files in the resources folder
+        try (InputStream is = openResource(filename)) {
+            new CsvParser(builder).parse(is);
         } catch (Exception e) {
             System.err.println("Error reading file: " + e.getMessage());
             return games;
         }
-        if (lines == null || lines.isEmpty()) {
-            return games;
+        for (int row = 0; row < builder.size(); row++) {
+            games.add(builder.get(row));
         }
-
-        Map<GameData, Integer> columnMap = processHeader(lines.remove(0));
-
-        games = lines.stream().map(line -> toBoardGame(line, columnMap))
-                .filter(game -> game != null).collect(Collectors.toSet());
-
         return games;
 
     }
 
     /**
-     * Converts a line from the csv file into a BoardGame object.
+     * Loads the games from a csv file in the resources folder straight into a game store.
      * 
-     * @param line      the line to convert
-     * @param columnMap the map of columns to index
-     * @return a BoardGame object
+     * The file is parsed a chunk at a time into the store's columns, so neither the text nor
+     * BoardGame objects are kept while loading. Repeated games (same name and id) are dropped,
+     * keeping the first, as {@link #loadGamesFile(String)} does.
+     * 
+     * @param filename the name of the file to load, relative to the resources folder
+     * @return the store, empty if the file cannot be read
      */
-    private static BoardGame toBoardGame(String line, Map<GameData, Integer> columnMap) {
-        String[] columns = line.split(DELIMITER);
-        if (columns.length < columnMap.values().stream().max(Integer::compareTo).get()) {
-            return null;
+    public static GameStore loadStore(String filename) {
+        GameStore.Builder builder = new GameStore.Builder();
+        try (InputStream is = openResource(filename)) {
+            new CsvParser(builder).parse(is);
+        } catch (Exception e) {
+            System.err.println("Error reading file: " + e.getMessage());
+            return new GameStore.Builder().build();
         }
+        return builder.distinct().build();
+    }
 
-        try {
-            BoardGame game = new BoardGame(columns[columnMap.get(GameData.NAME)],
-                    Integer.parseInt(columns[columnMap.get(GameData.ID)]),
-                    Integer.parseInt(columns[columnMap.get(GameData.MIN_PLAYERS)]),
-                    Integer.parseInt(columns[columnMap.get(GameData.MAX_PLAYERS)]),
-                    Integer.parseInt(columns[columnMap.get(GameData.MIN_TIME)]),
-                    Integer.parseInt(columns[columnMap.get(GameData.MAX_TIME)]),
-                    Double.parseDouble(columns[columnMap.get(GameData.DIFFICULTY)]),
-                    Integer.parseInt(columns[columnMap.get(GameData.RANK)]),
-                    Double.parseDouble(columns[columnMap.get(GameData.RATING)]),
-                    Integer.parseInt(columns[columnMap.get(GameData.YEAR)]));
-            return game;
-        } catch (NumberFormatException e) {
-            // skip if there is an issue
-            return null;
+    /**
+     * Loads the games from a csv file on the file system straight into a game store.
+     * 
+     * Works as {@link #loadStore(String)}, for files outside the resources folder such as
+     * large exports. The file is memory mapped, so its bytes are parsed in place. Files of
+     * {@link #PARALLEL_LOAD_BYTES} or more are parsed in parallel on the common pool, as
+     * {@link #loadStore(Path, ForkJoinPool)} does.
+     * 
+     * @param file the file to load
+     * @return the store, empty if the file cannot be read
+     */
+    public static GameStore loadStore(Path file) {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() >= PARALLEL_LOAD_BYTES && pool.getParallelism() > 1) {
+                return readParallel(channel, pool).distinct().build();
+            }
+            GameStore.Builder builder = new GameStore.Builder();
+            new CsvParser(builder).parse(channel);
+            return builder.distinct().build();
+        } catch (Exception e) {
+            System.err.println("Error reading file: " + e.getMessage());
+            return new GameStore.Builder().build();
         }
     }
 
     /**
-     * Processes the header line to determine the column mapping.
+     * Loads the games from a csv file on the file system, through a binary snapshot.
      * 
-     * It is common to do this for csv files as the columns can be in any order.
-     * This makes it order independent by taking a moment to link the columns
-     * with their actual index in the file.
+     * If the snapshot was written from the csv as it is now (same size and modification time)
+     * and is intact, the store is read from it with no parsing or sorting. Otherwise the csv is
+     * loaded as by {@link #loadStore(Path)} and a new snapshot is written for the next start.
      * 
-     * @param header the header line
-     * @return a map of column to index
+     * @param file the csv file to load
+     * @param snapshot the snapshot file, created or replaced as needed
+     * @return the store, empty if the csv cannot be read
+     * @see GameSnapshot
      */
-    private static Map<GameData, Integer> processHeader(String header) {
-        Map<GameData, Integer> columnMap = new HashMap<>();
-        String[] columns = header.split(DELIMITER);
-        for (int i = 0; i < columns.length; i++) {
+    public static GameStore loadStore(Path file, Path snapshot) {
+        long size;
+        long modified;
+        try {
+            size = Files.size(file);
+            modified = Files.getLastModifiedTime(file).toMillis();
+            GameStore store = GameSnapshot.read(snapshot, size, modified);
+            if (store != null) {
+                return store;
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading file: " + e.getMessage());
+            return new GameStore.Builder().build();
+        }
+        GameStore store = loadStore(file);
+        if (store.size() > 0) {
             try {
-                GameData col = GameData.fromColumnName(columns[i]);
-                columnMap.put(col, i);
-            } catch (IllegalArgumentException e) {
-                // System.out.println("Ignoring column: " + columns[i]);
+                GameSnapshot.write(store, snapshot, size, modified);
+            } catch (IOException e) {
+                System.err.println("Error writing snapshot: " + e.getMessage());
             }
         }
-        return columnMap;
+        return store;
+    }
+
+    /**
+     * Loads the games from a csv file on the file system straight into a game store, parsing
+     * parts of the file in parallel.
+     * 
+     * The file is split into byte ranges that start at line boundaries, each range is parsed
+     * into its own columns by a task on the pool, and the columns are joined in file order.
+     * Repeated games are then dropped as by {@link #loadStore(String)}, so the first one in the
+     * file is kept. If a quoted field holds a line break across a range boundary, the ranges no
+     * longer start at lines, and the file is parsed again in one pass.
+     * 
+     * @param file the file to load
+     * @param pool the pool the parts are parsed on
+     * @return the store, empty if the file cannot be read
+     */
+    public static GameStore loadStore(Path file, ForkJoinPool pool) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return readParallel(channel, pool).distinct().build();
+        } catch (Exception e) {
+            System.err.println("Error reading file: " + e.getMessage());
+            return new GameStore.Builder().build();
+        }
+    }
+
+    /**
+     * Parses a file in line aligned parts on a pool, and joins the rows in file order.
+     * 
+     * @param channel the file
+     * @param pool the pool the parts are parsed on
+     * @return the rows, repeated games not yet removed
+     * @throws IOException if reading fails
+     * @throws InterruptedException if interrupted while waiting for the parts
+     * @throws ExecutionException if parsing a part fails
+     */
+    private static GameStore.Builder readParallel(FileChannel channel, ForkJoinPool pool)
+            throws IOException, InterruptedException, ExecutionException {
+        long size = channel.size();
+        long headerEnd = nextLine(channel, 0);
+        CsvParser header = new CsvParser(new GameStore.Builder());
+        if (!header.parseHeader(channel.map(FileChannel.MapMode.READ_ONLY, 0, headerEnd),
+                true)) {
+            return new GameStore.Builder();
+        }
+
+        long chunk = Math.min(MAX_CHUNK_BYTES, Math.max(MIN_CHUNK_BYTES,
+                (size - headerEnd) / (pool.getParallelism() * CHUNKS_PER_THREAD) + 1));
+        List<Callable<GameStore.Builder>> tasks = new ArrayList<>();
+        for (long start = headerEnd; start < size;) {
+            long end = Math.min(size, nextLine(channel, Math.min(size, start + chunk) - 1));
+            long from = start;
+            tasks.add(() -> {
+                GameStore.Builder builder = new GameStore.Builder();
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from,
+                        end - from);
+                header.forChunk(builder).parse(buffer, end == size);
+                // a part that ends inside a quoted field means the next one did not start a line
+                return buffer.hasRemaining() ? null : builder;
+            });
+            start = end;
+        }
+
+        List<GameStore.Builder> parts = new ArrayList<>(tasks.size());
+        int rows = 0;
+        for (Future<GameStore.Builder> task : pool.invokeAll(tasks)) {
+            GameStore.Builder part = task.get();
+            if (part == null) {
+                GameStore.Builder builder = new GameStore.Builder();
+                new CsvParser(builder).parse(channel);
+                return builder;
+            }
+            parts.add(part);
+            rows += part.size();
+        }
+        GameStore.Builder builder = new GameStore.Builder(rows);
+        for (GameStore.Builder part : parts) {
+            builder.addAll(part);
+        }
+        return builder;
+    }
+
+    /**
+     * Finds the start of the line after a position.
+     * 
+     * @param channel the file
+     * @param position where to look from
+     * @return the position after the first line feed at or after the position, or the size of
+     *         the file if there is none
+     * @throws IOException if reading fails
+     */
+    private static long nextLine(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(LINE_SCAN_BYTES);
+        long offset = position;
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read < 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+    }
+
+    /**
+     * Opens a file in the resources folder.
+     * 
+     * @param filename the name of the file, relative to the resources folder
+     * @return the file's bytes
+     * @throws IOException if the file is not found
+     */
+    private static InputStream openResource(String filename) throws IOException {
+        InputStream is = GamesLoader.class.getResourceAsStream(filename);
+        if (is == null) {
+            throw new FileNotFoundException(filename);
+        }
+        return is;
     }
 
 }
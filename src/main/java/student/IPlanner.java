@@ -1,5 +1,6 @@
 package student;
 
+import java.util.List;
 import java.util.stream.Stream;
 
 /**
@@ -111,6 +112,53 @@ public interface IPlanner {
      */
     Stream<BoardGame> filter(String filter, GameData sortOn, boolean ascending);
 
+    /**
+     * Filters the board games by the passed in text filter, returning only part of the sorted
+     * result. Same as {@link #filter(String, GameData, boolean)} with the first offset games
+     * skipped and at most limit games returned, so the first page of a large result does not
+     * need the whole result sorted.
+     *
+     * @param filter    The filter to apply to the board games.
+     * @param sortOn    The column to sort the results on.
+     * @param ascending Whether to sort the results in ascending order or descending order.
+     * @param offset    The number of games to skip from the start of the sorted result.
+     * @param limit     The most games to return.
+     * @return A stream of at most limit board games that match the filter.
+     * @throws IllegalArgumentException if the offset or limit is negative.
+     */
+    Stream<BoardGame> filter(String filter, GameData sortOn, boolean ascending, int offset,
+            int limit);
+
+    /**
+     * Gets one page of the games matching the passed in text filter, sorted as in
+     * {@link #filter(String, GameData, boolean)}.
+     * <p>
+     * The first page is fetched with a null cursor. Each page carries the cursor for the page
+     * after it, which is passed back with the same filter and sort to continue.
+     *
+     * @param filter    The filter to apply to the board games.
+     * @param sortOn    The column to sort the results on.
+     * @param ascending Whether to sort the results in ascending order or descending order.
+     * @param pageSize  The most games on the page.
+     * @param cursor    The cursor from the previous page, or null for the first page.
+     * @return The page of games.
+     * @throws IllegalArgumentException if the page size is not positive, or the cursor is not
+     *                                  a cursor made for this sort.
+     */
+    Page page(String filter, GameData sortOn, boolean ascending, int pageSize, String cursor);
+
+    /**
+     * Gets the names of the games in the collection that start with a prefix, ignoring case, in
+     * ascending order ignoring case. Intended for autocompleting game names, so it is not affected
+     * by filters.
+     *
+     * @param prefix The start of the name, an empty prefix matches every game.
+     * @param limit  The most names to return.
+     * @return The matching names, at most limit of them.
+     * @throws IllegalArgumentException if the prefix is null or the limit is negative.
+     */
+    List<String> complete(String prefix, int limit);
+
     /**
      * Resets the collection to have no filters applied.
      */
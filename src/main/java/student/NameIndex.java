@@ -0,0 +1,298 @@
+package student;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The names of a {@link GameStore} sorted case insensitively, answering name conditions and
+ * prefix lookups with a binary search.
+ * <p>
+ * The order is {@link String#CASE_INSENSITIVE_ORDER}, the same ordering
+ * {@link String#compareToIgnoreCase(String)} uses, so the rows matching {@code name<text},
+ * {@code name>=text} and so on form one contiguous run of positions, as do the rows equal to the
+ * text or starting with a prefix. Finding a run takes two binary searches.
+ * <p>
+ * Rows without a name are left out of the order; they only ever match {@code !=}.
+ */
+public final class NameIndex {
+    /** The store the index was built for. */
+    private final GameStore store;
+    /** Rows with a name, in case insensitive name order. */
+    private final int[] order;
+
+    /**
+     * Builds the index for the names of a store.
+     *
+     * @param store the store to index
+     */
+    NameIndex(GameStore store) {
+        this.store = store;
+        int named = 0;
+        for (int row = 0; row < store.size(); row++) {
+            if (store.getName(row) != null) {
+                named++;
+            }
+        }
+        Integer[] rows = new Integer[named];
+        int i = 0;
+        for (int row = 0; row < store.size(); row++) {
+            if (store.getName(row) != null) {
+                rows[i++] = row;
+            }
+        }
+        // stable, so rows with names equal ignoring case stay in row order
+        Arrays.sort(rows, (a, b) -> String.CASE_INSENSITIVE_ORDER
+                .compare(store.getName(a), store.getName(b)));
+        this.order = new int[named];
+        for (i = 0; i < named; i++) {
+            order[i] = rows[i];
+        }
+    }
+
+    /**
+     * Creates the index from an order built earlier, such as one kept in a snapshot.
+     *
+     * @param store the store the order is for
+     * @param order rows with a name, in case insensitive name order, becomes the index's own
+     */
+    NameIndex(GameStore store, int[] order) {
+        this.store = store;
+        this.order = order;
+    }
+
+    /**
+     * Builds the index for a store made by changing an earlier one, from the earlier index.
+     * <p>
+     * The named rows kept from the earlier store are renumbered in their earlier order, the
+     * named rows added after them are sorted, and the two runs are merged, kept rows first on
+     * ties, which gives the same order as building the index from scratch.
+     *
+     * @param previous the index of the earlier store
+     * @param renumber the row of each earlier row in the new store, or -1 if it was removed
+     * @param firstAdded the first row added to the new store, every row before it was kept
+     * @param store the new store
+     * @return the index
+     */
+    static NameIndex merge(NameIndex previous, int[] renumber, int firstAdded, GameStore store) {
+        int[] kept = new int[previous.order.length];
+        int keptCount = 0;
+        for (int row : previous.order) {
+            if (renumber[row] >= 0) {
+                kept[keptCount++] = renumber[row];
+            }
+        }
+        List<Integer> added = new ArrayList<>();
+        for (int row = firstAdded; row < store.size(); row++) {
+            if (store.getName(row) != null) {
+                added.add(row);
+            }
+        }
+        // stable, so rows with names equal ignoring case stay in row order
+        added.sort((a, b) -> String.CASE_INSENSITIVE_ORDER.compare(store.getName(a),
+                store.getName(b)));
+
+        int[] order = new int[keptCount + added.size()];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < order.length; k++) {
+            if (j >= added.size() || i < keptCount && String.CASE_INSENSITIVE_ORDER.compare(
+                    store.getName(kept[i]), store.getName(added.get(j))) <= 0) {
+                order[k] = kept[i++];
+            } else {
+                order[k] = added.get(j++);
+            }
+        }
+        return new NameIndex(store, order);
+    }
+
+    /**
+     * Get the number of named rows in the index.
+     *
+     * @return the number of rows
+     */
+    public int size() {
+        return order.length;
+    }
+
+    /**
+     * Get the row at a position of the order.
+     *
+     * @param position the position
+     * @return the row
+     */
+    public int rowAt(int position) {
+        return order[position];
+    }
+
+    /**
+     * Counts the rows matching a name condition, other than contains.
+     *
+     * @param condition the condition
+     * @return the number of matching rows
+     */
+    public int count(FilterCondition condition) {
+        if (condition.matchesNothing()) {
+            return 0;
+        }
+        int from = from(condition);
+        int to = to(condition);
+        int inside = Math.max(0, to - from);
+        return condition.getOperator() == Operations.NOT_EQUALS ? store.size() - inside : inside;
+    }
+
+    /**
+     * Adds the rows matching a name condition, other than contains, to a selection.
+     *
+     * @param condition the condition
+     * @param out the selection to add to
+     */
+    public void select(FilterCondition condition, BitSet out) {
+        if (condition.matchesNothing()) {
+            return;
+        }
+        int from = from(condition);
+        int to = to(condition);
+        if (condition.getOperator() == Operations.NOT_EQUALS) {
+            BitSet equal = Scratch.get().bits();
+            setRows(from, to, equal);
+            equal.flip(0, store.size());
+            out.or(equal);
+        } else {
+            setRows(from, to, out);
+        }
+    }
+
+    /**
+     * Clears the selected rows that do not match a name condition, other than contains.
+     *
+     * @param condition the condition
+     * @param selection the selected rows, updated in place
+     */
+    public void refine(FilterCondition condition, BitSet selection) {
+        int from = from(condition);
+        int to = to(condition);
+        if (condition.getOperator() == Operations.NOT_EQUALS) {
+            for (int p = from; p < to; p++) {
+                selection.clear(order[p]);
+            }
+        } else {
+            BitSet matched = Scratch.get().bits();
+            setRows(from, to, matched);
+            selection.and(matched);
+        }
+    }
+
+    /**
+     * Gets the names starting with a prefix, ignoring case, in case insensitive order.
+     *
+     * @param prefix the prefix
+     * @param limit the most names to return
+     * @return the matching names
+     */
+    public List<String> complete(String prefix, int limit) {
+        List<String> result = new ArrayList<>(Math.min(limit, 16));
+        for (int p = firstAtLeast(prefix); p < order.length && result.size() < limit; p++) {
+            String name = store.getName(order[p]);
+            if (!name.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                break;
+            }
+            result.add(name);
+        }
+        return result;
+    }
+
+    /**
+     * Sets the rows for a run of positions.
+     *
+     * @param from first position, inclusive
+     * @param to last position, exclusive
+     * @param out the selection to add to
+     */
+    private void setRows(int from, int to, BitSet out) {
+        for (int p = from; p < to; p++) {
+            out.set(order[p]);
+        }
+    }
+
+    /**
+     * Finds the first position of the run for a condition. For == and != this is the start of
+     * the equal run.
+     *
+     * @param condition the condition
+     * @return the first position
+     */
+    private int from(FilterCondition condition) {
+        switch (condition.getOperator()) {
+            case GREATER_THAN:
+                return firstAbove(condition.getText());
+            case GREATER_THAN_EQUALS:
+            case EQUALS:
+            case NOT_EQUALS:
+                return firstAtLeast(condition.getText());
+            default:
+                return 0; // < and <=
+        }
+    }
+
+    /**
+     * Finds the end (exclusive) of the run for a condition. For == and != this is the end of the
+     * equal run.
+     *
+     * @param condition the condition
+     * @return the end position
+     */
+    private int to(FilterCondition condition) {
+        switch (condition.getOperator()) {
+            case LESS_THAN:
+                return firstAtLeast(condition.getText());
+            case LESS_THAN_EQUALS:
+            case EQUALS:
+            case NOT_EQUALS:
+                return firstAbove(condition.getText());
+            default:
+                return order.length; // > and >=
+        }
+    }
+
+    /**
+     * Binary search for the first position whose name is at or after the text, ignoring case.
+     *
+     * @param text the text
+     * @return the position, or the size if there is none
+     */
+    private int firstAtLeast(String text) {
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (store.getName(order[mid]).compareToIgnoreCase(text) >= 0) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Binary search for the first position whose name is after the text, ignoring case.
+     *
+     * @param text the text
+     * @return the position, or the size if there is none
+     */
+    private int firstAbove(String text) {
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (store.getName(order[mid]).compareToIgnoreCase(text) > 0) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+}
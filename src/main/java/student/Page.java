@@ -0,0 +1,57 @@
+package student;
+
+import java.util.List;
+
+/**
+ * One page of a filtered and sorted result, with a cursor for the page after it.
+ * <p>
+ * The cursor is opaque text holding the sort column, direction, and the id and sort key of the
+ * last game on the page. Passing it back to
+ * {@link IPlanner#page(String, GameData, boolean, int, String)} with the same filter and sort
+ * continues right after where that game sorts, without the earlier pages being sorted or built
+ * again, even if the game has been changed or removed since.
+ */
+public final class Page {
+    /** The games on the page, in order. */
+    private final List<BoardGame> games;
+    /** Cursor for the next page, null if this is the last page. */
+    private final String nextCursor;
+
+    /**
+     * Constructor for the page.
+     *
+     * @param games the games on the page, in order
+     * @param nextCursor cursor for the next page, or null if this is the last page
+     */
+    Page(List<BoardGame> games, String nextCursor) {
+        this.games = List.copyOf(games);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Get the games on the page.
+     *
+     * @return unmodifiable list of games, in order
+     */
+    public List<BoardGame> getGames() {
+        return games;
+    }
+
+    /**
+     * Get the cursor for the next page.
+     *
+     * @return the cursor, or null if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Whether there is a page after this one.
+     *
+     * @return true if there are more games
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,131 @@
+package student;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque cursors handed out with a {@link Page}.
+ * <p>
+ * A cursor is the URL safe Base64 form of {@code version:column:direction:id:value:name}, the
+ * sort key of the last game of the page: its id, its value in the sort column and its lower cased
+ * name. The name is last so it may contain the separator. Because the cursor carries the whole
+ * key, the next page can start from where the game sorts even once it has been changed or
+ * removed.
+ */
+final class PageCursor {
+    /** Version of the cursor format. */
+    private static final String VERSION = "2";
+    /** Separator between the fields. */
+    private static final String SEPARATOR = ":";
+
+    /** The sort column. */
+    private final GameData sortOn;
+    /** The sort direction. */
+    private final boolean ascending;
+    /** The id of the last game returned. */
+    private final int id;
+    /** The sort column value of the last game returned, 0 for name and id. */
+    private final double value;
+    /** The lower cased name of the last game returned. */
+    private final String lowerName;
+
+    /**
+     * Constructor for the cursor.
+     *
+     * @param sortOn the sort column
+     * @param ascending the sort direction
+     * @param id the id of the last game returned
+     * @param value the sort column value of the last game returned, 0 for name and id
+     * @param lowerName the lower cased name of the last game returned
+     */
+    PageCursor(GameData sortOn, boolean ascending, int id, double value, String lowerName) {
+        this.sortOn = sortOn;
+        this.ascending = ascending;
+        this.id = id;
+        this.value = value;
+        this.lowerName = lowerName == null ? "" : lowerName;
+    }
+
+    /**
+     * Decodes a cursor.
+     *
+     * @param cursor the encoded cursor
+     * @return the cursor
+     * @throws IllegalArgumentException if the text is not a cursor
+     */
+    static PageCursor decode(String cursor) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split(SEPARATOR, 6);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+        if (parts.length != 6 || !VERSION.equals(parts[0])) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        try {
+            return new PageCursor(GameData.valueOf(parts[1]), "a".equals(parts[2]),
+                    Integer.parseInt(parts[3]), Double.parseDouble(parts[4]), parts[5]);
+        } catch (IllegalArgumentException e) { // includes NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    /**
+     * Encodes the cursor.
+     *
+     * @return the opaque cursor text
+     */
+    String encode() {
+        String text = String.join(SEPARATOR, VERSION, sortOn.name(), ascending ? "a" : "d",
+                String.valueOf(id), String.valueOf(value), lowerName);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Get the sort column.
+     *
+     * @return the column
+     */
+    GameData getSortOn() {
+        return sortOn;
+    }
+
+    /**
+     * Get the sort direction.
+     *
+     * @return true if ascending
+     */
+    boolean isAscending() {
+        return ascending;
+    }
+
+    /**
+     * Get the id of the last game returned.
+     *
+     * @return the id
+     */
+    int getId() {
+        return id;
+    }
+
+    /**
+     * Get the sort column value of the last game returned.
+     *
+     * @return the value, 0 for name and id
+     */
+    double getValue() {
+        return value;
+    }
+
+    /**
+     * Get the lower cased name of the last game returned.
+     *
+     * @return the name, empty if the game had none
+     */
+    String getLowerName() {
+        return lowerName;
+    }
+}
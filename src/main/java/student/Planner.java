@@ -1,17 +1,37 @@
 package student;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.PrimitiveIterator;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
-import java.util.ArrayList;
+import java.util.stream.StreamSupport;
 import java.util.List;
 
 
 public class Planner implements IPlanner {
-    /** The complete set of games available. */
-    private final Set<BoardGame> allGames;
+    /** Default number of games at which filters start running in parallel. */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 50_000;
+
+    /** The current version of the catalogue, replaced as a whole by every change. */
+    private final AtomicReference<CatalogueVersion> version;
+
+    /** Held while a change is built and published, so changes are made one at a time. */
+    private final Object writeLock = new Object();
 
-    /** The current list of games. */
-    private List<BoardGame> gamesList;
+    /** Cache of compiled filters and their sorted results. */
+    private final FilterCache filterCache;
+
+    /** Selection vector of each thread, reused by every filter call, one bit per row. */
+    private final ThreadLocal<BitSet> selections = ThreadLocal.withInitial(BitSet::new);
+
+    /** Number of games at which filters are evaluated in parallel. */
+    private volatile int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
 
     /**
      * Constructor for the Planner.
@@ -19,7 +39,38 @@ public class Planner implements IPlanner {
      * @param games The set of all board games to be filtered and sorted
      */
     public Planner(Set<BoardGame> games) {
-        this.allGames = games;
+        this(games, FilterCache.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor for the Planner with a specific filter cache size.
+     *
+     * @param games The set of all board games to be filtered and sorted
+     * @param cacheCapacity The number of filters to cache results for, 0 disables caching
+     */
+    public Planner(Set<BoardGame> games, int cacheCapacity) {
+        this(GameStore.of(games), cacheCapacity);
+    }
+
+    /**
+     * Constructor for the Planner from an already built game store.
+     *
+     * @param store The store of all board games to be filtered and sorted
+     */
+    public Planner(GameStore store) {
+        this(store, FilterCache.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor for the Planner from an already built game store with a specific filter cache
+     * size.
+     *
+     * @param store The store of all board games to be filtered and sorted
+     * @param cacheCapacity The number of filters to cache results for, 0 disables caching
+     */
+    public Planner(GameStore store, int cacheCapacity) {
+        this.version = new AtomicReference<>(new CatalogueVersion(1, store));
+        this.filterCache = new FilterCache(cacheCapacity);
         reset();
     }
 
@@ -57,257 +108,408 @@ public class Planner implements IPlanner {
      */
     @Override
     public Stream<BoardGame> filter(String filter, GameData sortOn, boolean ascending) {
-        if (gamesList == null || gamesList.isEmpty()) {
-            reset();
+        String key = FilterCache.normalize(filter);
+        List<BoardGame> cached = filterCache.getResult(key, sortOn, ascending);
+        if (cached != null) {
+            return cached.stream();
         }
+        CompiledFilter compiled = filterCache.compile(key, sortOn, ascending);
+        // taken before the version, so a result from a version replaced meanwhile is stale
+        long generation = filterCache.generation();
+        List<BoardGame> result = evaluate(version.get().getStore(), compiled, sortOn, ascending);
+        return filterCache.putResult(key, sortOn, ascending, compiled, result, generation)
+                .stream();
+    }
 
-        List<BoardGame> filteredGames = new ArrayList<>(gamesList);
+    /**
+     * Filters the board games and returns part of the sorted result, as a lazy stream.
+     * <p>
+     * If the full result is cached, the part is taken from it. Otherwise the matching rows are
+     * selected and the stream walks the sort index as games are pulled from it, so only the games
+     * up to the last one consumed are ever put in order or built.
+     *
+     * @param filter The filter string containing conditions separated by commas.
+     * @param sortOn The column to sort the results on.
+     * @param ascending If true, sorts in ascending order; otherwise, sorts in descending order.
+     * @param offset The number of games to skip from the start of the sorted result.
+     * @param limit The most games to return.
+     * @return A stream of at most limit matching games, sorted accordingly.
+     * @throws IllegalArgumentException if the offset or limit is negative.
+     */
+    @Override
+    public Stream<BoardGame> filter(String filter, GameData sortOn, boolean ascending, int offset,
+            int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit cannot be negative: " + offset
+                    + ", " + limit);
+        }
+        String key = FilterCache.normalize(filter);
+        List<BoardGame> cached = filterCache.getResult(key, sortOn, ascending);
+        if (cached != null) {
+            int from = Math.min(offset, cached.size());
+            return cached.subList(from, (int) Math.min((long) from + limit, cached.size()))
+                    .stream();
+        }
+        CompiledFilter compiled = filterCache.compile(key, sortOn, ascending);
+        if (compiled.matchesNothing() || limit == 0) {
+            return Stream.empty();
+        }
+        GameStore current = version.get().getStore();
+        BitSet rows = (BitSet) select(current, compiled).clone(); // outlives the next call
+        return stream(current, rows, sortOn, ascending, offset, limit);
+    }
 
-        if (filter != null && !filter.isEmpty()) {
-            String trimmedFilter = filter.trim();
-            String[] filterConditions = trimmedFilter.split(",");
+    /**
+     * Streams part of the sorted games of selected rows lazily, walking the sort index as games
+     * are pulled from the stream.
+     *
+     * @param current The store the rows are from.
+     * @param rows The selected rows, owned by the stream from now on.
+     * @param sortOn The column to sort the results on.
+     * @param ascending If true, sorts in ascending order; otherwise, sorts in descending order.
+     * @param offset The number of games to skip from the start of the sorted result.
+     * @param limit The most games to return.
+     * @return A stream of at most limit games, sorted accordingly.
+     */
+    static Stream<BoardGame> stream(GameStore current, BitSet rows, GameData sortOn,
+            boolean ascending, int offset, int limit) {
+        PrimitiveIterator.OfInt sorted = current.sortIndex(sortOn).iterator(rows, ascending);
+        return StreamSupport.intStream(Spliterators.spliterator(sorted, rows.cardinality(),
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false)
+                .skip(offset)
+                .limit(limit)
+                .mapToObj(current::get);
+    }
 
-            for (String condition : filterConditions) {
-                if (!condition.trim().isEmpty()) {
-                    filteredGames = applyFilterCondition(condition.trim(), filteredGames);
-                    if (filteredGames.isEmpty()) {
-                        return Stream.empty();
-                    }
-                }
-            }
+    /**
+     * Gets one page of the games matching a filter.
+     * <p>
+     * The cursor is resolved to the position in the sort index where the last game of the
+     * previous page sorts, by binary search on its sort key, and the index is walked from there,
+     * so paging goes on even if that game has since been changed or removed. Only the games on
+     * this page are put in order and built.
+     *
+     * @param filter The filter string containing conditions separated by commas.
+     * @param sortOn The column to sort the results on.
+     * @param ascending If true, sorts in ascending order; otherwise, sorts in descending order.
+     * @param pageSize The most games on the page.
+     * @param cursor The cursor from the previous page, or null for the first page.
+     * @return The page of games.
+     * @throws IllegalArgumentException if the page size is not positive, or the cursor is not
+     *                                  a cursor made for this sort.
+     */
+    @Override
+    public Page page(String filter, GameData sortOn, boolean ascending, int pageSize,
+            String cursor) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
         }
-
-        return sortGames(filteredGames, sortOn, ascending).stream();
+        GameStore current = version.get().getStore();
+        int start = resolve(current, cursor, sortOn, ascending);
+        CompiledFilter compiled = compile(filter, sortOn, ascending);
+        if (compiled.matchesNothing()) {
+            return new Page(List.of(), null);
+        }
+        return page(current, select(current, compiled), sortOn, ascending, pageSize, start);
     }
 
     /**
-     * Applies a single filter condition to the list of games.
+     * Gets one page of the sorted games of selected rows.
      *
-     * @param filterCondition The filter condition string (e.g. "minPlayers>=2")
-     * @param games The list of games to filter
-     * @return The filtered list of games
+     * @param current The store the rows are from.
+     * @param selection The selected rows.
+     * @param sortOn The column to sort the results on.
+     * @param ascending If true, sorts in ascending order; otherwise, sorts in descending order.
+     * @param pageSize The most games on the page.
+     * @param start The position in the sort index to start after, from
+     *              {@link #resolve(GameStore, String, GameData, boolean)}.
+     * @return The page of games.
      */
-    private List<BoardGame> applyFilterCondition(String filterCondition, List<BoardGame> games) {
-        if (filterCondition.toLowerCase().contains("name") && filterCondition.contains("~=")) {
-        // Split using ~= to properly handle the contains operator
-            String[] parts = filterCondition.split("~=", 2);
-            if (parts.length == 2) {
-                String columnName = parts[0].trim();
-                String filterValue = parts[1].trim();
-
-                try {
-                    GameData filterOn = GameData.fromString(columnName);
-                    if (filterOn == GameData.NAME) {
-                        List<BoardGame> result = new ArrayList<>();
-                        for (BoardGame game : games) {
-                            if (game.getName().toLowerCase().contains(filterValue.toLowerCase())) {
-                                result.add(game);
-                            }
-                        }
-                        return result;
-                    }
-                } catch (IllegalArgumentException e) {
-                    return games;
-                }
-            }
+    static Page page(GameStore current, BitSet selection, GameData sortOn, boolean ascending,
+            int pageSize, int start) {
+        PrimitiveIterator.OfInt rows = current.sortIndex(sortOn).iteratorAfter(selection,
+                ascending, start);
+        List<BoardGame> games = new ArrayList<>(pageSize);
+        int last = -1;
+        while (games.size() < pageSize && rows.hasNext()) {
+            last = rows.nextInt();
+            games.add(current.get(last));
         }
+        String next = rows.hasNext() ? new PageCursor(sortOn, ascending, current.getId(last),
+                current.sortValue(last, sortOn), current.getLowerName(last)).encode() : null;
+        return new Page(games, next);
+    }
 
-        Operations operator = Operations.getOperatorFromStr(filterCondition);
-        if (operator == null) {
-            return games;
+    /**
+     * Finds the position in the sort index to continue after an encoded cursor.
+     *
+     * @param current the store to find the position in
+     * @param cursor the encoded cursor, or null for the first page
+     * @param sortOn the sort column of the request
+     * @param ascending the sort direction of the request
+     * @return the position to start after, -1 ascending or the size descending for the first page
+     * @throws IllegalArgumentException if the cursor is malformed or was made for another sort
+     */
+    static int resolve(GameStore current, String cursor, GameData sortOn, boolean ascending) {
+        if (cursor == null) {
+            return ascending ? -1 : current.size();
+        }
+        PageCursor decoded = PageCursor.decode(cursor);
+        if (decoded.getSortOn() != sortOn || decoded.isAscending() != ascending) {
+            throw new IllegalArgumentException("Cursor was made for another sort order");
         }
+        return current.sortIndex(sortOn).positionAfter(current, decoded.getValue(),
+                decoded.getLowerName(), decoded.getId(), ascending);
+    }
 
-        String[] parts;
-        if (operator == Operations.CONTAINS) {
-            parts = filterCondition.split("~=", 2);
-        } else {
-            String opStr = operator.getOperator();
-            if (opStr.equals(">") || opStr.equals("<") || opStr.equals("=")) {
-                parts = filterCondition.split(opStr, 2);
-                if (parts.length != 2) {
-                    if (opStr.equals(">") && filterCondition.contains(">=")) {
-                        parts = filterCondition.split(">=", 2);
-                    } else if (opStr.equals("<") && filterCondition.contains("<=")) {
-                        parts = filterCondition.split("<=", 2);
-                    } else if (opStr.equals("=") && filterCondition.contains("==")) {
-                        parts = filterCondition.split("==", 2);
-                    }
-                }
-            } else {
-                parts = filterCondition.split(opStr, 2);
-            }
+    /**
+     * Filters and sorts the list of board games using an already compiled filter.
+     * <p>
+     * Compiling a filter once with {@link FilterCompiler#compile(String)} and reusing it avoids
+     * parsing the filter string on every call.
+     *
+     * @param filter The compiled filter to apply.
+     * @param sortOn The column to sort the results on.
+     * @param ascending If true, sorts in ascending order; otherwise, sorts in descending order.
+     * @return A stream of board games that match the filter criteria and are sorted accordingly.
+     */
+    public Stream<BoardGame> filter(CompiledFilter filter, GameData sortOn, boolean ascending) {
+        return evaluate(version.get().getStore(), filter, sortOn, ascending).stream();
+    }
+
+    /**
+     * Filters and sorts the board games into a caller supplied collection, without allocating in
+     * steady state.
+     * <p>
+     * The compiled filter keeps its plan, the selection vector is reused, and the indexes and the
+     * sort work in per thread scratch buffers, so once a filter has run once, running it again
+     * allocates nothing (other than growth of the collection) when the planner was built from
+     * existing games and the filter runs single threaded. Reusing the same collection, cleared
+     * between calls, keeps the result allocation free too.
+     *
+     * @param filter The compiled filter to apply.
+     * @param sortOn The column to sort the results on.
+     * @param ascending If true, sorts in ascending order; otherwise, sorts in descending order.
+     * @param out The collection the matching games are added to, in order.
+     * @return The number of games added.
+     */
+    public int filterInto(CompiledFilter filter, GameData sortOn, boolean ascending,
+            Collection<? super BoardGame> out) {
+        if (filter.matchesNothing()) {
+            return 0;
         }
+        GameStore current = version.get().getStore();
+        BitSet selection = select(current, filter);
+        int[] rows = Scratch.get().sorted(selection.cardinality());
+        int count = current.sortIndex(sortOn).sortedRows(selection, ascending, rows);
+        for (int i = 0; i < count; i++) {
+            out.add(current.get(rows[i]));
+        }
+        return count;
+    }
+
+    /**
+     * Explains how a filter is evaluated: the order the conditions run in, whether each one is
+     * answered from an index or a scan, and the estimated and actual number of games left after
+     * each one.
+     *
+     * @param filter The filter string containing conditions separated by commas.
+     * @return The plan, with the actual row counts recorded.
+     */
+    public FilterPlan explain(String filter) {
+        GameStore current = version.get().getStore();
+        CompiledFilter compiled = FilterCompiler.compile(filter);
+        FilterPlan plan = FilterPlan.plan(current, compiled);
+        plan.execute(current, new BitSet(current.size()), true);
+        return plan;
+    }
 
-        if (parts.length != 2) {
-            return games;
+    @Override
+    public List<String> complete(String prefix, int limit) {
+        if (prefix == null) {
+            throw new IllegalArgumentException("Prefix cannot be null");
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative: " + limit);
         }
+        return version.get().getStore().nameIndex().complete(prefix.trim(), limit);
+    }
 
-        GameData filterOn;
-        try {
-            filterOn = GameData.fromString(parts[0].trim());
-        } catch (IllegalArgumentException e) {
-            return games;
+    /**
+     * Sets the number of games at which filters are evaluated in parallel, on the common fork join
+     * pool. Smaller collections are filtered on the calling thread, which is faster for them.
+     * Results are the same either way.
+     *
+     * @param parallelThreshold the number of games, {@link Integer#MAX_VALUE} to never run in
+     *                          parallel
+     * @throws IllegalArgumentException if the threshold is negative
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        if (parallelThreshold < 0) {
+            throw new IllegalArgumentException("Threshold cannot be negative: " + parallelThreshold);
         }
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Get the number of games at which filters are evaluated in parallel.
+     *
+     * @return the threshold
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
 
-        String value = parts[1].trim();
+    /**
+     * Get the cache of compiled filters and results, mostly useful for its hit, miss and
+     * eviction counters.
+     *
+     * @return the filter cache
+     */
+    public FilterCache getFilterCache() {
+        return filterCache;
+    }
 
-        List<BoardGame> result = new ArrayList<>();
-        for (BoardGame game : games) {
-            if (matchesFilter(game, filterOn, operator, value)) {
-                result.add(game);
-            }
+    /**
+     * Evaluates a compiled filter over a version of the game store.
+     *
+     * @param current The store pinned for the call.
+     * @param filter The compiled filter to apply.
+     * @param sortOn The column to sort the results on.
+     * @param ascending If true, sorts in ascending order; otherwise, sorts in descending order.
+     * @return The sorted list of matching games.
+     */
+    private List<BoardGame> evaluate(GameStore current, CompiledFilter filter, GameData sortOn,
+            boolean ascending) {
+        if (filter.matchesNothing()) {
+            return List.of();
         }
 
-        return result;
+        BitSet selection = select(current, filter);
+        return current.get(current.sortIndex(sortOn).sortedRows(selection, ascending));
     }
 
     /**
-     * Checks if a game matches a filter condition.
+     * Selects the games matching a compiled filter into the calling thread's selection vector.
      *
-     * @param game The game to check
-     * @param filterOn The column to filter on
-     * @param operator The operation to apply
-     * @param value The value to compare against
-     * @return True if the game matches the filter
+     * @param current The store pinned for the call.
+     * @param filter The compiled filter to apply.
+     * @return The selection vector, valid until the thread's next filter call.
      */
-    private boolean matchesFilter(BoardGame game, GameData filterOn, Operations operator, String value) {
-        switch (filterOn) {
-            case NAME:
-                return matchesStringFilter(game.getName(), operator, value);
-            case MIN_PLAYERS:
-                return matchesNumberFilter(game.getMinPlayers(), operator, value);
-            case MAX_PLAYERS:
-                return matchesNumberFilter(game.getMaxPlayers(), operator, value);
-            case MIN_TIME:
-                return matchesNumberFilter(game.getMinPlayTime(), operator, value);
-            case MAX_TIME:
-                return matchesNumberFilter(game.getMaxPlayTime(), operator, value);
-            case DIFFICULTY:
-                return matchesDoubleFilter(game.getDifficulty(), operator, value);
-            case RANK:
-                return matchesNumberFilter(game.getRank(), operator, value);
-            case RATING:
-                return matchesDoubleFilter(game.getRating(), operator, value);
-            case YEAR:
-                return matchesNumberFilter(game.getYearPublished(), operator, value);
-            default:
-                return true;
-        }
+    private BitSet select(GameStore current, CompiledFilter filter) {
+        BitSet selection = selections.get();
+        select(current, filter, selection);
+        return selection;
     }
 
     /**
-     * Checks if a string value matches a filter condition.
+     * Selects the games matching a compiled filter into a selection vector, in parallel if the
+     * store is at least the parallel threshold.
      *
-     * @param gameValue The string value to check
-     * @param operator The operation to apply
-     * @param filterValue The value to compare against
-     * @return True if the value matches the filter
+     * @param current The store pinned for the call.
+     * @param filter The compiled filter to apply.
+     * @param selection The selection vector, replaced by the matching rows.
      */
-    private boolean matchesStringFilter(String gameValue, Operations operator, String filterValue) {
-        if (gameValue == null) {
-            return operator == Operations.NOT_EQUALS && filterValue != null;
+    void select(GameStore current, CompiledFilter filter, BitSet selection) {
+        if (current.size() >= parallelThreshold) {
+            current.select(filter, selection, ForkJoinPool.commonPool());
+        } else {
+            current.select(filter, selection);
         }
+    }
 
-        switch (operator) {
-            case EQUALS:
-                return gameValue.equalsIgnoreCase(filterValue);
-            case NOT_EQUALS:
-                return !gameValue.equalsIgnoreCase(filterValue);
-            case CONTAINS:
-                return gameValue.toLowerCase().contains(filterValue.toLowerCase());
-            case GREATER_THAN:
-                return gameValue.compareToIgnoreCase(filterValue) > 0;
-            case LESS_THAN:
-                return gameValue.compareToIgnoreCase(filterValue) < 0;
-            case GREATER_THAN_EQUALS:
-                return gameValue.compareToIgnoreCase(filterValue) >= 0;
-            case LESS_THAN_EQUALS:
-                return gameValue.compareToIgnoreCase(filterValue) <= 0;
-            default:
-                return false;
-        }
+    /**
+     * Compiles a filter string, or gets it from the cache.
+     *
+     * @param filter The filter string, normalized first.
+     * @param sortOn The column the results will be sorted on.
+     * @param ascending The sort direction.
+     * @return The compiled filter.
+     */
+    CompiledFilter compile(String filter, GameData sortOn, boolean ascending) {
+        return filterCache.compile(FilterCache.normalize(filter), sortOn, ascending);
     }
 
     /**
-     * Checks if an integer value matches a filter condition.
+     * Applies a batch of changes to the catalogue.
+     * <p>
+     * The new store is built once next to the current one and published as a new version, so a
+     * filter running at the same time sees either all of the batch or none of it. Changes are
+     * made one at a time, each on top of the one before, while filters go on without waiting.
+     * Cached results are dropped, as they may no longer match.
      *
-     * @param gameValue The integer value to check
-     * @param operator The operation to apply
-     * @param filterValue The value to compare against
-     * @return True if the value matches the filter
+     * @param update The changes to apply.
      */
-    private boolean matchesNumberFilter(int gameValue, Operations operator, String filterValue) {
-        try {
-            int intValue = Integer.parseInt(filterValue);
-            switch (operator) {
-                case EQUALS:
-                    return gameValue == intValue;
-                case NOT_EQUALS:
-                    return gameValue != intValue;
-                case GREATER_THAN:
-                    return gameValue > intValue;
-                case LESS_THAN:
-                    return gameValue < intValue;
-                case GREATER_THAN_EQUALS:
-                    return gameValue >= intValue;
-                case LESS_THAN_EQUALS:
-                    return gameValue <= intValue;
-                default:
-                    return false;
-            }
-        } catch (NumberFormatException e) {
-            return false;
+    public void apply(CatalogueUpdate update) {
+        if (update.isEmpty()) {
+            return;
         }
+        synchronized (writeLock) {
+            CatalogueVersion current = version.get();
+            version.set(current.next(current.getStore().apply(update)));
+        }
+        reset();
     }
 
     /**
-     * Checks if a double value matches a filter condition.
+     * Replaces the whole catalogue, such as with a collection loaded again in the background.
+     * <p>
+     * Filters already running finish on the version they started with, and later ones see the
+     * new games. Cached results are dropped.
      *
-     * @param gameValue The double value to check
-     * @param operator The operation to apply
-     * @param filterValue The value to compare against
-     * @return True if the value matches the filter
+     * @param store The new games.
+     * @throws IllegalArgumentException if the store is null.
      */
-    private boolean matchesDoubleFilter(double gameValue, Operations operator, String filterValue) {
-        try {
-            double doubleValue = Double.parseDouble(filterValue);
-            switch (operator) {
-                case EQUALS:
-                    return Math.abs(gameValue - doubleValue) < 0.001;
-                case NOT_EQUALS:
-                    return Math.abs(gameValue - doubleValue) >= 0.001;
-                case GREATER_THAN:
-                    return gameValue > doubleValue;
-                case LESS_THAN:
-                    return gameValue < doubleValue;
-                case GREATER_THAN_EQUALS:
-                    return gameValue >= doubleValue;
-                case LESS_THAN_EQUALS:
-                    return gameValue <= doubleValue;
-                default:
-                    return false;
-            }
-        } catch (NumberFormatException e) {
-            return false;
+    public void publish(GameStore store) {
+        if (store == null) {
+            throw new IllegalArgumentException("Store cannot be null");
         }
+        synchronized (writeLock) {
+            version.set(version.get().next(store));
+        }
+        reset();
+    }
+
+    /**
+     * Get the current version of the catalogue. Holding on to it keeps its games readable, and
+     * comparing version numbers shows whether the catalogue has changed.
+     *
+     * @return The current version.
+     */
+    public CatalogueVersion getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Adds a game, replacing every game with the same id.
+     *
+     * @param game The game to add.
+     * @throws IllegalArgumentException if the game is null.
+     */
+    public void upsert(BoardGame game) {
+        apply(new CatalogueUpdate().upsert(game));
+    }
+
+    /**
+     * Removes every game with an id.
+     *
+     * @param id The id of the games to remove.
+     */
+    public void delete(int id) {
+        apply(new CatalogueUpdate().delete(id));
     }
 
     /**
-     * Sorts a list of games by a specific column.
+     * Get the store of all games the planner filters.
      *
-     * @param games The list of games to sort
-     * @param sortOn The column to sort on
-     * @param ascending Whether to sort in ascending order
-     * @return The sorted list of games
+     * @return the game store
      */
-    private List<BoardGame> sortGames(List<BoardGame> games, GameData sortOn, boolean ascending) {
-        List<BoardGame> sortedList = new ArrayList<>(games);
-        sortedList.sort(GameSorter.sortFilteredGames(sortOn, ascending));
-        return sortedList;
+    public GameStore getStore() {
+        return version.get().getStore();
     }
 
     @Override
     public void reset() {
-        gamesList = new ArrayList<>(allGames);
+        filterCache.invalidate();
     }
 }
@@ -0,0 +1,508 @@
+package student;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * A headless HTTP server over a {@link PlannerService}, for running the planner behind a front
+ * end. It uses only the HTTP server built into the JDK.
+ * <p>
+ * Requests, with parameters in the query string and answers as JSON:
+ * <ul>
+ * <li>{@code GET /filter?q=&sort=&order=&offset=&limit=} filters the whole catalogue, with no
+ * session.</li>
+ * <li>{@code GET /complete?q=&limit=} lists game names starting with a prefix.</li>
+ * <li>{@code POST /sessions} opens a session and {@code DELETE /sessions/{id}} closes it.</li>
+ * <li>{@code POST /sessions/{id}/filter?q=&sort=&order=&offset=&limit=} adds a progressive filter
+ * to the session, and {@code POST /sessions/{id}/reset} clears its filters.</li>
+ * <li>{@code GET /sessions/{id}/list} shows the session's game list, {@code POST
+ * /sessions/{id}/list/add?q=} and {@code POST /sessions/{id}/list/remove?q=} change it as the
+ * console's list commands do, and {@code GET /sessions/{id}/list/save} returns it as the text
+ * file the console would save.</li>
+ * </ul>
+ * <p>
+ * Each request runs on its own virtual thread when the JDK has them, and otherwise on a fixed
+ * pool of platform threads with a bounded queue. Either way at most a fixed number of requests are
+ * admitted at once; any more, and any the pool's queue has no room for, are turned away straight
+ * away with 503 and a Retry-After header, so a burst cannot pile up work the server will never
+ * catch up on, nor hold up the thread accepting connections. Requests that fail unexpectedly are
+ * logged and answered with 500 and a generic error.
+ */
+public final class PlannerServer {
+    /** Default port. */
+    public static final int DEFAULT_PORT = 8080;
+    /** Default most requests admitted at once. */
+    public static final int DEFAULT_MAX_REQUESTS = 1024;
+    /** Games returned by a filter when no limit is given. */
+    public static final int DEFAULT_LIMIT = 100;
+    /** Minutes a session may go unused before the server closes it. */
+    public static final long SESSION_IDLE_MINUTES = 30;
+    /** Names returned by complete when no limit is given. */
+    private static final int DEFAULT_COMPLETE_LIMIT = 10;
+    /** Seconds a turned away client is asked to wait. */
+    private static final String RETRY_AFTER_SECONDS = "1";
+    /** Connections the operating system may hold waiting to be accepted. */
+    private static final int BACKLOG = 1024;
+    /**
+     * System property that turns off Nagle's algorithm in the JDK's HTTP server. The server
+     * writes the headers and the body separately, so without it the body waits for the client's
+     * delayed ack, about 40ms per response on Linux. It applies to every HTTP server in the JVM
+     * and is read when the first one is made, so it is left to the program starting the server.
+     */
+    public static final String NO_DELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    /** The service the requests run against. */
+    private final PlannerService service;
+    /** The HTTP server. */
+    private final HttpServer server;
+    /** The executor requests run on. */
+    private final ExecutorService executor;
+    /** Closes sessions that have gone unused. */
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(
+            task -> {
+                Thread thread = new Thread(task, "planner-session-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+    /** Answers the requests the executor has no room for, with 503. */
+    private final ExecutorService turnAway = new ThreadPoolExecutor(1, 1, 0,
+            TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(BACKLOG), task -> {
+                Thread thread = new Thread(task, "planner-turn-away");
+                thread.setDaemon(true);
+                return thread;
+            });
+    /** Set on the turn away thread, whose requests are never admitted. */
+    private final ThreadLocal<Boolean> turningAway = ThreadLocal.withInitial(() -> false);
+    /** Requests that may still be admitted. */
+    private final Semaphore admissions;
+    /** Number of requests turned away because the server was busy. */
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Constructor for a server, not yet started.
+     *
+     * @param service the service to serve
+     * @param port the port to listen on, 0 for any free port
+     * @param maxRequests the most requests admitted at once
+     * @throws IOException if the port cannot be bound
+     * @throws IllegalArgumentException if the service is null or the limit is not positive
+     */
+    public PlannerServer(PlannerService service, int port, int maxRequests) throws IOException {
+        if (service == null) {
+            throw new IllegalArgumentException("Service cannot be null");
+        }
+        if (maxRequests <= 0) {
+            throw new IllegalArgumentException("Max requests must be positive: " + maxRequests);
+        }
+        this.service = service;
+        this.admissions = new Semaphore(maxRequests);
+        this.executor = newExecutor(maxRequests);
+        this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        server.setExecutor(task -> {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // full: the request still has to be read, but only to be answered with 503
+                turnAway.execute(() -> {
+                    turningAway.set(true);
+                    try {
+                        task.run();
+                    } finally {
+                        turningAway.set(false);
+                    }
+                });
+            }
+        });
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * Starts accepting requests, and closing sessions unused for
+     * {@link #SESSION_IDLE_MINUTES}.
+     */
+    public void start() {
+        server.start();
+        sweeper.scheduleWithFixedDelay(
+                () -> service.closeIdle(SESSION_IDLE_MINUTES, TimeUnit.MINUTES), 1, 1,
+                TimeUnit.MINUTES);
+    }
+
+    /**
+     * Stops the server, letting requests already running finish for up to a delay.
+     *
+     * @param delaySeconds the most seconds to wait for running requests
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+        turnAway.shutdown();
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * Get the port the server listens on.
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Get the number of requests turned away because the server was busy.
+     *
+     * @return the number of requests
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Get the service the server serves.
+     *
+     * @return the service
+     */
+    public PlannerService getService() {
+        return service;
+    }
+
+    /**
+     * Makes the executor requests run on: a virtual thread per request if the JDK has them,
+     * otherwise a pool of platform threads with a bounded queue that rejects requests when full.
+     *
+     * @param maxRequests the most requests admitted at once
+     * @return the executor
+     */
+    private static ExecutorService newExecutor(int maxRequests) {
+        try {
+            // looked up by name so the server still builds and runs on JDKs before 21
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            int threads = Runtime.getRuntime().availableProcessors() * 2;
+            return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(maxRequests), new ThreadPoolExecutor.AbortPolicy());
+        }
+    }
+
+    /**
+     * Handles a request, if it can be admitted.
+     *
+     * @param exchange the request and its response
+     * @throws IOException if the response cannot be sent
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            // no request has a body; reading to its end lets the connection be kept alive
+            exchange.getRequestBody().close();
+            if (turningAway.get() || !admissions.tryAcquire()) {
+                rejected.incrementAndGet();
+                exchange.getResponseHeaders().set("Retry-After", RETRY_AFTER_SECONDS);
+                send(exchange, 503, error("Server busy"));
+                return;
+            }
+            try {
+                route(exchange);
+            } catch (IllegalArgumentException e) {
+                send(exchange, 400, error(e.getMessage()));
+            } catch (RuntimeException e) {
+                System.err.println("Error handling " + exchange.getRequestMethod() + " "
+                        + exchange.getRequestURI() + ":");
+                e.printStackTrace();
+                send(exchange, 500, error("Internal server error"));
+            } finally {
+                admissions.release();
+            }
+        }
+    }
+
+    /**
+     * Runs a request.
+     *
+     * @param exchange the request and its response
+     * @throws IOException if the response cannot be sent
+     */
+    private void route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] path = exchange.getRequestURI().getPath().replaceAll("^/+|/+$", "").split("/");
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+        if (path.length == 1 && path[0].equals("filter") && method.equals("GET")) {
+            send(exchange, 200, filter(service.getPlanner(), query));
+        } else if (path.length == 1 && path[0].equals("complete") && method.equals("GET")) {
+            List<String> names = service.getPlanner().complete(query.getOrDefault("q", ""),
+                    intParam(query, "limit", DEFAULT_COMPLETE_LIMIT));
+            send(exchange, 200, names(names));
+        } else if (path.length == 1 && path[0].equals("sessions") && method.equals("POST")) {
+            send(exchange, 201, "{\"session\":" + quote(service.open().getId()) + "}");
+        } else if (path.length >= 2 && path[0].equals("sessions")) {
+            PlannerSession session;
+            try {
+                session = service.get(path[1]);
+            } catch (IllegalArgumentException e) {
+                send(exchange, 404, error(e.getMessage()));
+                return;
+            }
+            routeSession(exchange, method, path, query, session);
+        } else {
+            send(exchange, 404, error("No such request: " + method + " "
+                    + exchange.getRequestURI().getPath()));
+        }
+    }
+
+    /**
+     * Runs a request on a session.
+     *
+     * @param exchange the request and its response
+     * @param method the request method
+     * @param path the parts of the path, the session id second
+     * @param query the query parameters
+     * @param session the session
+     * @throws IOException if the response cannot be sent
+     */
+    private void routeSession(HttpExchange exchange, String method, String[] path,
+            Map<String, String> query, PlannerSession session) throws IOException {
+        String action = String.join("/", List.of(path).subList(2, path.length));
+        switch (method + " " + action) {
+            case "DELETE ":
+                service.close(session.getId());
+                send(exchange, 204, null);
+                break;
+            case "POST filter":
+                send(exchange, 200, filter(session, query));
+                break;
+            case "POST reset":
+                session.reset();
+                send(exchange, 204, null);
+                break;
+            case "GET list":
+                send(exchange, 200, names(session.getGameNames()));
+                break;
+            case "POST list/add":
+                synchronized (session) {
+                    // added from the session's filtered games, in name order as in the console
+                    session.addToList(query.getOrDefault("q", ""), session.filter(""));
+                }
+                send(exchange, 200, names(session.getGameNames()));
+                break;
+            case "POST list/remove":
+                session.removeFromList(query.getOrDefault("q", ""));
+                send(exchange, 200, names(session.getGameNames()));
+                break;
+            case "GET list/save":
+                exchange.getResponseHeaders().set("Content-Disposition",
+                        "attachment; filename=\"games.txt\"");
+                sendText(exchange, String.join("\n", session.getGameNames()));
+                break;
+            default:
+                send(exchange, 404, error("No such request: " + method + " "
+                        + exchange.getRequestURI().getPath()));
+        }
+    }
+
+    /**
+     * Runs a filter request against a planner.
+     *
+     * @param planner the planner, shared or a session
+     * @param query the query parameters
+     * @return the games as JSON
+     * @throws IllegalArgumentException if a parameter is not valid
+     */
+    private static String filter(IPlanner planner, Map<String, String> query) {
+        GameData sortOn = query.containsKey("sort") ? GameData.fromString(query.get("sort"))
+                : GameData.NAME;
+        String order = query.getOrDefault("order", "asc");
+        if (!order.equalsIgnoreCase("asc") && !order.equalsIgnoreCase("desc")) {
+            throw new IllegalArgumentException("Order must be asc or desc: " + order);
+        }
+        Stream<BoardGame> games = planner.filter(query.getOrDefault("q", ""), sortOn,
+                order.equalsIgnoreCase("asc"), intParam(query, "offset", 0),
+                intParam(query, "limit", DEFAULT_LIMIT));
+        StringBuilder json = new StringBuilder("[");
+        for (Iterator<BoardGame> it = games.iterator(); it.hasNext();) {
+            appendGame(json, it.next());
+            if (it.hasNext()) {
+                json.append(',');
+            }
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * Writes a game as a JSON object.
+     *
+     * @param json where to write
+     * @param game the game
+     */
+    private static void appendGame(StringBuilder json, BoardGame game) {
+        json.append("{\"name\":").append(quote(game.getName()))
+                .append(",\"id\":").append(game.getId())
+                .append(",\"minPlayers\":").append(game.getMinPlayers())
+                .append(",\"maxPlayers\":").append(game.getMaxPlayers())
+                .append(",\"minPlayTime\":").append(game.getMinPlayTime())
+                .append(",\"maxPlayTime\":").append(game.getMaxPlayTime())
+                .append(",\"difficulty\":").append(game.getDifficulty())
+                .append(",\"rank\":").append(game.getRank())
+                .append(",\"rating\":").append(game.getRating())
+                .append(",\"year\":").append(game.getYearPublished())
+                .append('}');
+    }
+
+    /**
+     * Writes names as a JSON array.
+     *
+     * @param names the names
+     * @return the JSON
+     */
+    private static String names(List<String> names) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < names.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(quote(names.get(i)));
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * Writes an error message as a JSON object.
+     *
+     * @param message the message
+     * @return the JSON
+     */
+    private static String error(String message) {
+        return "{\"error\":" + quote(message) + "}";
+    }
+
+    /**
+     * Quotes a string for JSON.
+     *
+     * @param text the string, may be null
+     * @return the quoted string, or null
+     */
+    private static String quote(String text) {
+        if (text == null) {
+            return "null";
+        }
+        StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * Parses a raw query string.
+     *
+     * @param raw the query, may be null
+     * @return the decoded parameters, the last value of each
+     */
+    private static Map<String, String> parseQuery(String raw) {
+        Map<String, String> params = new HashMap<>();
+        if (raw == null || raw.isEmpty()) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int equals = pair.indexOf('=');
+            String key = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    /**
+     * Reads a whole number parameter.
+     *
+     * @param query the parameters
+     * @param name the name of the parameter
+     * @param missing the value if it is not given
+     * @return the value
+     * @throws IllegalArgumentException if the value is not a whole number
+     */
+    private static int intParam(Map<String, String> query, String name, int missing) {
+        String value = query.get(name);
+        if (value == null) {
+            return missing;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a whole number for " + name + ": " + value);
+        }
+    }
+
+    /**
+     * Sends a JSON response.
+     *
+     * @param exchange the exchange
+     * @param status the status code
+     * @param json the body, or null for none
+     * @throws IOException if sending fails
+     */
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        if (json == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        write(exchange, status, json);
+    }
+
+    /**
+     * Sends a plain text response.
+     *
+     * @param exchange the exchange
+     * @param text the body
+     * @throws IOException if sending fails
+     */
+    private static void sendText(HttpExchange exchange, String text) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        write(exchange, 200, text);
+    }
+
+    /**
+     * Writes a response body.
+     *
+     * @param exchange the exchange
+     * @param status the status code
+     * @param body the body
+     * @throws IOException if sending fails
+     */
+    private static void write(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package student;
+
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves one catalogue to many users at once, each in their own {@link PlannerSession}.
+ * <p>
+ * All sessions share one {@link Planner}, so the catalogue, its indexes and the cache of compiled
+ * filters exist once however many users there are, and changes to the catalogue made through
+ * {@link #getPlanner()} are seen by every session from its next call. Sessions are kept in a
+ * concurrent map by id, so opening, finding and closing them never blocks the users of other
+ * sessions.
+ */
+public final class PlannerService {
+    /** The shared planner. */
+    private final Planner planner;
+    /** Open sessions by id. */
+    private final ConcurrentMap<String, PlannerSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for a service over a store of games.
+     *
+     * @param store the games
+     */
+    public PlannerService(GameStore store) {
+        this(new Planner(store));
+    }
+
+    /**
+     * Constructor for a service sharing a planner.
+     *
+     * @param planner the planner
+     * @throws IllegalArgumentException if the planner is null
+     */
+    public PlannerService(Planner planner) {
+        if (planner == null) {
+            throw new IllegalArgumentException("Planner cannot be null");
+        }
+        this.planner = planner;
+    }
+
+    /**
+     * Opens a new session, with no filter and an empty game list.
+     *
+     * @return the session
+     */
+    public PlannerSession open() {
+        PlannerSession session = new PlannerSession(UUID.randomUUID().toString(), planner);
+        sessions.put(session.getId(), session);
+        return session;
+    }
+
+    /**
+     * Gets an open session.
+     *
+     * @param id the id of the session
+     * @return the session
+     * @throws IllegalArgumentException if there is no open session with the id
+     */
+    public PlannerSession get(String id) {
+        PlannerSession session = id == null ? null : sessions.get(id);
+        if (session == null) {
+            throw new IllegalArgumentException("Unknown session: " + id);
+        }
+        return session;
+    }
+
+    /**
+     * Closes a session. Calls already running on it finish normally.
+     *
+     * @param id the id of the session
+     * @return true if the session was open
+     */
+    public boolean close(String id) {
+        return id != null && sessions.remove(id) != null;
+    }
+
+    /**
+     * Closes every session that has not been used for a while.
+     *
+     * @param idle how long a session may go unused
+     * @param unit the unit of idle
+     * @return the number of sessions closed
+     */
+    public int closeIdle(long idle, TimeUnit unit) {
+        long now = System.nanoTime();
+        long limit = unit.toNanos(idle);
+        int closed = 0;
+        for (Iterator<PlannerSession> it = sessions.values().iterator(); it.hasNext();) {
+            if (now - it.next().getLastUsed() > limit) {
+                it.remove();
+                closed++;
+            }
+        }
+        return closed;
+    }
+
+    /**
+     * Get the number of open sessions.
+     *
+     * @return the number of sessions
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Get the planner shared by every session, through which the catalogue is changed.
+     *
+     * @return the planner
+     */
+    public Planner getPlanner() {
+        return planner;
+    }
+}
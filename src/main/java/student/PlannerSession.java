@@ -0,0 +1,231 @@
+package student;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * One user's planner and game list, opened from a {@link PlannerService}.
+ * <p>
+ * Filters are progressive, as {@link IPlanner} describes: each filter narrows the games left by
+ * the filters before it, until {@link #reset()}. The session keeps the rows still selected, so a
+ * filter that only adds conditions refines them, running just its new conditions over the
+ * shrinking selection. After a reset, or once the catalogue has changed, the next filter runs all
+ * of the conditions from the indexes again.
+ * <p>
+ * The catalogue, its indexes and the compiled filters are shared by every session of the service
+ * and only read. What a session keeps of its own is small: its conditions, the rows they match
+ * as a bitmap over the catalogue version they were selected from, and its game list. Each call
+ * pins one version of the catalogue, so a result always comes whole from a single version even
+ * while the catalogue is being changed.
+ * <p>
+ * Sessions of different users never wait for each other. The calls of one session are
+ * serialized, so a session can safely be used from whichever thread serves its user next.
+ */
+public final class PlannerSession implements IPlanner, IGameList {
+    /** Id of the session in its service. */
+    private final String id;
+    /** The shared planner. */
+    private final Planner planner;
+    /** The session's game list. */
+    private final GameList games = new GameList();
+    /** Conditions of every filter since the last reset, without repeats. */
+    private final List<FilterCondition> conditions = new ArrayList<>();
+    /** Rows matching the conditions, one bit per row of {@link #version}. */
+    private final BitSet selection = new BitSet();
+    /** Version the selection was made on, null before the first filter or after a reset. */
+    private CatalogueVersion version;
+    /** Time the session was last used, as {@link System#nanoTime()}. */
+    private volatile long lastUsed = System.nanoTime();
+
+    /**
+     * Constructor for a session.
+     *
+     * @param id the id of the session
+     * @param planner the shared planner
+     */
+    PlannerSession(String id, Planner planner) {
+        this.id = id;
+        this.planner = planner;
+    }
+
+    /**
+     * Get the id of the session.
+     *
+     * @return the id
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Get the version of the catalogue the last filter ran on.
+     *
+     * @return the version, or null if there has been no filter since the session was opened or
+     *         reset
+     */
+    public synchronized CatalogueVersion getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the number of games the filters matched.
+     *
+     * @return the number of games, 0 if there has been no filter since the session was opened or
+     *         reset
+     */
+    public synchronized int getSelectionSize() {
+        return selection.cardinality();
+    }
+
+    /**
+     * Get the filter the session's games are selected by: the conditions of every filter since
+     * the last reset.
+     *
+     * @return the filter, empty if there has been no filter since the session was opened or reset
+     */
+    public synchronized CompiledFilter getFilter() {
+        return new CompiledFilter(conditions);
+    }
+
+    @Override
+    public Stream<BoardGame> filter(String filter) {
+        return filter(filter, GameData.NAME, true);
+    }
+
+    @Override
+    public Stream<BoardGame> filter(String filter, GameData sortOn) {
+        return filter(filter, sortOn, true);
+    }
+
+    @Override
+    public synchronized Stream<BoardGame> filter(String filter, GameData sortOn,
+            boolean ascending) {
+        GameStore current = select(planner.getVersion(), filter, sortOn, ascending);
+        // lazy, so taking a few games, as a range add does, builds only those
+        return Planner.stream(current, (BitSet) selection.clone(), sortOn, ascending, 0,
+                Integer.MAX_VALUE);
+    }
+
+    @Override
+    public synchronized Stream<BoardGame> filter(String filter, GameData sortOn, boolean ascending,
+            int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit cannot be negative: " + offset
+                    + ", " + limit);
+        }
+        GameStore current = select(planner.getVersion(), filter, sortOn, ascending);
+        // the stream outlives the next call of the session
+        return Planner.stream(current, (BitSet) selection.clone(), sortOn, ascending, offset,
+                limit);
+    }
+
+    @Override
+    public synchronized Page page(String filter, GameData sortOn, boolean ascending, int pageSize,
+            String cursor) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        CatalogueVersion pinned = planner.getVersion();
+        int start = Planner.resolve(pinned.getStore(), cursor, sortOn, ascending);
+        GameStore current = select(pinned, filter, sortOn, ascending);
+        return Planner.page(current, selection, sortOn, ascending, pageSize, start);
+    }
+
+    @Override
+    public List<String> complete(String prefix, int limit) {
+        lastUsed = System.nanoTime();
+        return planner.complete(prefix, limit);
+    }
+
+    /**
+     * Clears the filters of the session, so the next filter starts from every game again. The
+     * game list is kept.
+     */
+    @Override
+    public synchronized void reset() {
+        lastUsed = System.nanoTime();
+        conditions.clear();
+        selection.clear();
+        version = null;
+    }
+
+    @Override
+    public synchronized List<String> getGameNames() {
+        return games.getGameNames();
+    }
+
+    @Override
+    public synchronized void clear() {
+        games.clear();
+    }
+
+    @Override
+    public synchronized int count() {
+        return games.count();
+    }
+
+    @Override
+    public synchronized void saveGame(String filename) {
+        games.saveGame(filename);
+    }
+
+    @Override
+    public synchronized void addToList(String str, Stream<BoardGame> filtered)
+            throws IllegalArgumentException {
+        games.addToList(str, filtered);
+    }
+
+    @Override
+    public synchronized void removeFromList(String str) throws IllegalArgumentException {
+        games.removeFromList(str);
+    }
+
+    /**
+     * Get the time the session was last used.
+     *
+     * @return the time, as {@link System#nanoTime()}
+     */
+    long getLastUsed() {
+        return lastUsed;
+    }
+
+    /**
+     * Adds the conditions of a filter to the session's, and narrows the selection to the games
+     * matching them all.
+     *
+     * @param pinned the version to select from
+     * @param filter the filter string
+     * @param sortOn the column the results will be sorted on
+     * @param ascending the sort direction
+     * @return the store of the version
+     */
+    private GameStore select(CatalogueVersion pinned, String filter, GameData sortOn,
+            boolean ascending) {
+        lastUsed = System.nanoTime();
+        GameStore current = pinned.getStore();
+        List<FilterCondition> added = new ArrayList<>();
+        for (FilterCondition condition : planner.compile(filter, sortOn, ascending)
+                .getConditions()) {
+            if (!conditions.contains(condition) && !added.contains(condition)) {
+                added.add(condition);
+            }
+        }
+        conditions.addAll(added);
+
+        if (pinned == version) {
+            // a refinement: only the new conditions, over only the rows still selected
+            for (FilterCondition condition : added) {
+                if (selection.isEmpty()) {
+                    break;
+                }
+                current.refine(condition, selection);
+            }
+        } else {
+            planner.select(current, new CompiledFilter(conditions), selection);
+            version = pinned;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,201 @@
+package student;
+
+import java.util.BitSet;
+
+/**
+ * Answers numeric filter conditions with a binary search over a {@link SortIndex}.
+ * <p>
+ * Along a column's sort index the column values never decrease, so the rows matching
+ * {@code >, <, >=, <=} or {@code ==} form one contiguous run of positions, and {@code !=} is
+ * everything outside that run. Finding the run takes two binary searches, after which the number
+ * of matching rows is known without looking at them, and the rows can be selected by walking only
+ * the run.
+ * <p>
+ * For double columns, NaN values sort last and match no condition, so they are kept out of every
+ * run.
+ */
+public final class RangeIndex {
+    /** The sort index of the column. */
+    private final SortIndex index;
+    /** The column values, if the column is int based. */
+    private final int[] intValues;
+    /** The column values, if the column is double based. */
+    private final double[] doubleValues;
+    /** Positions at and after this hold NaN values. */
+    private final int end;
+
+    /**
+     * Constructor for the index.
+     *
+     * @param store the store to index
+     * @param column the numeric column
+     */
+    RangeIndex(GameStore store, GameData column) {
+        this.index = store.sortIndex(column);
+        if (GameStore.isDoubleColumn(column)) {
+            this.intValues = null;
+            this.doubleValues = store.doubleColumn(column);
+            int first = index.size();
+            while (first > 0 && Double.isNaN(doubleValues[index.rowAt(first - 1)])) {
+                first--;
+            }
+            this.end = first;
+        } else {
+            this.intValues = store.intColumn(column);
+            this.doubleValues = null;
+            this.end = index.size();
+        }
+    }
+
+    /**
+     * Whether a column can be answered by a range index.
+     *
+     * @param column the column
+     * @return true for every column other than name and id
+     */
+    static boolean supports(GameData column) {
+        return column != GameData.NAME && column != GameData.ID;
+    }
+
+    /**
+     * Get the column the index is on.
+     *
+     * @return the column
+     */
+    public GameData getColumn() {
+        return index.getColumn();
+    }
+
+    /**
+     * Counts the rows matching a condition on this column.
+     *
+     * @param condition the condition
+     * @return the number of matching rows
+     */
+    public int count(FilterCondition condition) {
+        if (condition.matchesNothing()) {
+            return 0;
+        }
+        int from = from(condition);
+        int to = to(condition);
+        int inside = Math.max(0, to - from);
+        return condition.getOperator() == Operations.NOT_EQUALS ? end - inside : inside;
+    }
+
+    /**
+     * Adds the rows matching a condition on this column to a selection.
+     *
+     * @param condition the condition
+     * @param out the selection to add to
+     */
+    public void select(FilterCondition condition, BitSet out) {
+        if (condition.matchesNothing()) {
+            return;
+        }
+        int from = from(condition);
+        int to = to(condition);
+        if (condition.getOperator() == Operations.NOT_EQUALS) {
+            setRows(0, Math.min(from, to), out);
+            setRows(Math.max(from, to), end, out);
+        } else {
+            setRows(from, to, out);
+        }
+    }
+
+    /**
+     * Sets the rows for a run of positions.
+     *
+     * @param from first position, inclusive
+     * @param to last position, exclusive
+     * @param out the selection to add to
+     */
+    private void setRows(int from, int to, BitSet out) {
+        for (int p = from; p < to; p++) {
+            out.set(index.rowAt(p));
+        }
+    }
+
+    /**
+     * Finds the first position of the run for a condition. For != this is the start of the
+     * equal run that is excluded.
+     *
+     * @param condition the condition
+     * @return the first position
+     */
+    private int from(FilterCondition condition) {
+        switch (condition.getOperator()) {
+            case GREATER_THAN:
+                return firstAbove(condition, false);
+            case GREATER_THAN_EQUALS:
+            case EQUALS:
+            case NOT_EQUALS:
+                return firstAbove(condition, true);
+            default:
+                return 0; // < and <=
+        }
+    }
+
+    /**
+     * Finds the end (exclusive) of the run for a condition. For != this is the end of the equal
+     * run that is excluded.
+     *
+     * @param condition the condition
+     * @return the end position
+     */
+    private int to(FilterCondition condition) {
+        switch (condition.getOperator()) {
+            case LESS_THAN:
+                return firstAbove(condition, true);
+            case LESS_THAN_EQUALS:
+            case EQUALS:
+            case NOT_EQUALS:
+                return firstAbove(condition, false);
+            default:
+                return end; // > and >=
+        }
+    }
+
+    /**
+     * Binary search for the first position whose value is above the operand.
+     * <p>
+     * With {@code inclusive} the value may also equal the operand. For double equality the
+     * operand is widened by the tolerance on the matching side, using the same arithmetic as
+     * {@link FilterCondition#testDouble(double)} so the run is exact.
+     *
+     * @param condition the condition holding the operand
+     * @param inclusive whether a value equal to the operand counts as above
+     * @return the first position, or the end if there is none
+     */
+    private int firstAbove(FilterCondition condition, boolean inclusive) {
+        boolean tolerant = condition.getOperator() == Operations.EQUALS
+                || condition.getOperator() == Operations.NOT_EQUALS;
+        int low = 0;
+        int high = end;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int row = index.rowAt(mid);
+            boolean above;
+            if (intValues != null) {
+                int value = intValues[row];
+                above = inclusive ? value >= condition.getIntOperand()
+                        : value > condition.getIntOperand();
+            } else {
+                double value = doubleValues[row];
+                if (tolerant) {
+                    double diff = value - condition.getDoubleOperand();
+                    above = inclusive ? diff > -FilterCompiler.DOUBLE_TOLERANCE
+                            : diff >= FilterCompiler.DOUBLE_TOLERANCE;
+                } else {
+                    above = inclusive ? value >= condition.getDoubleOperand()
+                            : value > condition.getDoubleOperand();
+                }
+            }
+            if (above) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,111 @@
+package student;
+
+import java.util.BitSet;
+
+/**
+ * Per thread scratch buffers for filter evaluation, so a steady stream of filters over a loaded
+ * store does not allocate.
+ * <p>
+ * Each buffer only grows, and is only valid until the next call for the same buffer on the same
+ * thread. The buffers are split by purpose so that an index refining a selection and the planner
+ * sorting the result never share one.
+ */
+final class Scratch {
+    /** The buffers of each thread. */
+    private static final ThreadLocal<Scratch> LOCAL = ThreadLocal.withInitial(Scratch::new);
+
+    /** A handful of values, such as the trigram slots of a contains text. */
+    private int[] small = new int[16];
+    /** Candidate rows inside one refine step. */
+    private int[] rows = new int[64];
+    /** Rows of a result being put in order. */
+    private int[] sorted = new int[64];
+    /** Rows matched inside one refine step. */
+    private final BitSet bits = new BitSet();
+    /** Rows of one parallel chunk being refined, empty between chunks. */
+    private final BitSet chunk = new BitSet();
+
+    /** Constructor, use {@link #get()}. */
+    private Scratch() {
+    }
+
+    /**
+     * Get the scratch buffers of the current thread.
+     *
+     * @return the buffers
+     */
+    static Scratch get() {
+        return LOCAL.get();
+    }
+
+    /**
+     * Get the buffer for a handful of values.
+     *
+     * @param size the number of values needed
+     * @return a buffer of at least the size, contents undefined
+     */
+    int[] small(int size) {
+        if (small.length < size) {
+            small = new int[grow(small.length, size)];
+        }
+        return small;
+    }
+
+    /**
+     * Get the buffer for candidate rows inside one refine step.
+     *
+     * @param size the number of rows needed
+     * @return a buffer of at least the size, contents undefined
+     */
+    int[] rows(int size) {
+        if (rows.length < size) {
+            rows = new int[grow(rows.length, size)];
+        }
+        return rows;
+    }
+
+    /**
+     * Get the buffer for the rows of a result being put in order.
+     *
+     * @param size the number of rows needed
+     * @return a buffer of at least the size, contents undefined
+     */
+    int[] sorted(int size) {
+        if (sorted.length < size) {
+            sorted = new int[grow(sorted.length, size)];
+        }
+        return sorted;
+    }
+
+    /**
+     * Get the bitset for rows matched inside one refine step.
+     *
+     * @return the bitset, cleared
+     */
+    BitSet bits() {
+        bits.clear();
+        return bits;
+    }
+
+    /**
+     * Get the bitset for the rows of one parallel chunk. It is empty, and only as wide as the
+     * widest chunk the thread has refined, so it is not cleared in full; the caller clears the
+     * rows of its chunk when done.
+     *
+     * @return the bitset, empty
+     */
+    BitSet chunk() {
+        return chunk;
+    }
+
+    /**
+     * Gets the new length for a buffer, at least doubling so growth is rare.
+     *
+     * @param length the current length
+     * @param size the size needed
+     * @return the new length
+     */
+    private static int grow(int length, int size) {
+        return Math.max(size, length * 2);
+    }
+}
@@ -0,0 +1,464 @@
+package student;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * A pre-sorted permutation of the rows of a {@link GameStore} for one GameData column.
+ * <p>
+ * The order is the ascending order defined by {@link GameSorter#sortFilteredGames(GameData,
+ * boolean)}: by the column, then by the lower cased name, then by id. Descending order is the same
+ * permutation walked backwards. Because the order is built once when the store is loaded, producing a sorted
+ * result needs no comparator calls at all.
+ */
+public final class SortIndex {
+    /** Below this many rows per selected row, sorting the selected positions beats walking. */
+    private static final int WALK_RATIO = 16;
+
+    /** The column the index is sorted on. */
+    private final GameData column;
+    /** Rows in ascending order. */
+    private final int[] order;
+    /** Position of each row in {@link #order}, the inverse permutation. */
+    private final int[] positions;
+
+    /**
+     * Constructor for the index.
+     *
+     * @param column the column the index is sorted on
+     * @param order rows in ascending order
+     */
+    private SortIndex(GameData column, int[] order) {
+        this.column = column;
+        this.order = order;
+        this.positions = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            positions[order[i]] = i;
+        }
+    }
+
+    /**
+     * Builds the index for a column of a store.
+     *
+     * @param store the store to index
+     * @param column the column to sort on, ID sorts by name as GameSorter does
+     * @return the index
+     */
+    static SortIndex build(GameStore store, GameData column) {
+        int[] order = new int[store.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        mergeSort(order, new int[order.length], 0, order.length, comparator(store, column));
+        return new SortIndex(column, order);
+    }
+
+    /**
+     * Builds the index for a store made by changing an earlier one, from the earlier index.
+     * <p>
+     * The rows kept from the earlier store are in the same relative order, so the earlier order
+     * is walked with each row renumbered, and only the rows added after them are sorted. The two
+     * runs are then merged, kept rows first on ties, which gives the same order as
+     * {@link #build(GameStore, GameData)} would.
+     *
+     * @param previous the index of the earlier store
+     * @param renumber the row of each earlier row in the new store, or -1 if it was removed
+     * @param firstAdded the first row added to the new store, every row before it was kept
+     * @param store the new store
+     * @return the index
+     */
+    static SortIndex merge(SortIndex previous, int[] renumber, int firstAdded, GameStore store) {
+        GameData column = previous.column;
+        RowComparator comparator = comparator(store, column);
+        int[] kept = new int[firstAdded];
+        int count = 0;
+        for (int row : previous.order) {
+            if (renumber[row] >= 0) {
+                kept[count++] = renumber[row];
+            }
+        }
+        int[] added = new int[store.size() - firstAdded];
+        for (int i = 0; i < added.length; i++) {
+            added[i] = firstAdded + i;
+        }
+        mergeSort(added, new int[added.length], 0, added.length, comparator);
+
+        int[] order = new int[store.size()];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < order.length; k++) {
+            if (j >= added.length
+                    || i < kept.length && comparator.compare(kept[i], added[j]) <= 0) {
+                order[k] = kept[i++];
+            } else {
+                order[k] = added[j++];
+            }
+        }
+        return new SortIndex(column, order);
+    }
+
+    /**
+     * Builds the comparator that defines the order of a column: the column, then the lower
+     * cased name, then the id.
+     *
+     * @param store the store
+     * @param column the column, ID compares by name as GameSorter does
+     * @return the comparator
+     */
+    private static RowComparator comparator(GameStore store, GameData column) {
+        RowComparator byName = (a, b) -> {
+            int result = compareNames(store.getLowerName(a), store.getLowerName(b));
+            return result != 0 ? result : Integer.compare(store.getId(a), store.getId(b));
+        };
+        if (column == GameData.NAME || column == GameData.ID) {
+            return byName;
+        }
+        if (GameStore.isDoubleColumn(column)) {
+            double[] values = store.doubleColumn(column);
+            return (a, b) -> {
+                int result = Double.compare(values[a], values[b]);
+                return result != 0 ? result : byName.compare(a, b);
+            };
+        }
+        int[] values = store.intColumn(column);
+        return (a, b) -> {
+            int result = Integer.compare(values[a], values[b]);
+            return result != 0 ? result : byName.compare(a, b);
+        };
+    }
+
+    /**
+     * Creates the index from an order built earlier, such as one kept in a snapshot.
+     *
+     * @param column the column the index is sorted on
+     * @param order rows in ascending order, becomes the index's own
+     * @return the index
+     */
+    static SortIndex of(GameData column, int[] order) {
+        return new SortIndex(column, order);
+    }
+
+    /**
+     * Get the column the index is sorted on.
+     *
+     * @return the column
+     */
+    public GameData getColumn() {
+        return column;
+    }
+
+    /**
+     * Get the number of rows in the index.
+     *
+     * @return the number of rows
+     */
+    public int size() {
+        return order.length;
+    }
+
+    /**
+     * Get the row at a position of the ascending order.
+     *
+     * @param position the position
+     * @return the row
+     */
+    public int rowAt(int position) {
+        return order[position];
+    }
+
+    /**
+     * Get the position of a row in the ascending order.
+     *
+     * @param row the row
+     * @return the position
+     */
+    public int positionOf(int row) {
+        return positions[row];
+    }
+
+    /**
+     * Gets the selected rows in sorted order.
+     * <p>
+     * Large selections are produced by walking the index (forwards or backwards) and keeping the
+     * selected rows. Small selections instead sort the positions of just the selected rows, which
+     * is cheaper than walking every row.
+     *
+     * @param rows the selected rows
+     * @param ascending the sort direction
+     * @return the selected rows in order
+     */
+    public int[] sortedRows(BitSet rows, boolean ascending) {
+        int[] result = new int[rows.cardinality()];
+        sortedRows(rows, ascending, result);
+        return result;
+    }
+
+    /**
+     * Puts the selected rows in sorted order into a buffer, without allocating.
+     *
+     * @param rows the selected rows
+     * @param ascending the sort direction
+     * @param result buffer to receive the rows, at least as long as the number of selected rows
+     * @return the number of rows put in the buffer
+     * @see #sortedRows(BitSet, boolean)
+     */
+    public int sortedRows(BitSet rows, boolean ascending, int[] result) {
+        int count = rows.cardinality();
+        if (count == 0) {
+            return 0;
+        }
+        if ((long) count * WALK_RATIO < order.length) {
+            int i = 0;
+            for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+                result[i++] = positions[row];
+            }
+            Arrays.sort(result, 0, count);
+            for (i = 0; i < count; i++) {
+                result[i] = order[result[i]];
+            }
+            if (!ascending) {
+                reverse(result, count);
+            }
+            return count;
+        }
+        int i = 0;
+        if (ascending) {
+            for (int p = 0; i < count; p++) {
+                if (rows.get(order[p])) {
+                    result[i++] = order[p];
+                }
+            }
+        } else {
+            for (int p = order.length - 1; i < count; p--) {
+                if (rows.get(order[p])) {
+                    result[i++] = order[p];
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Iterates over the selected rows in sorted order, finding each row only when it is asked
+     * for.
+     *
+     * @param rows the selected rows
+     * @param ascending the sort direction
+     * @return iterator over the selected rows in order
+     * @see #iterator(BitSet, boolean, int)
+     */
+    public PrimitiveIterator.OfInt iterator(BitSet rows, boolean ascending) {
+        return iterator(rows, ascending, -1);
+    }
+
+    /**
+     * Iterates over the selected rows that come after a given row in sorted order, finding each
+     * row only when it is asked for.
+     * <p>
+     * Large selections walk the index one step per call, so taking the first few rows of a large
+     * result costs only the positions walked to reach them. Small selections are sorted up front,
+     * as in {@link #sortedRows(BitSet, boolean)}, since that is cheaper than walking every row.
+     * The rows must not change while iterating.
+     *
+     * @param rows the selected rows
+     * @param ascending the sort direction
+     * @param afterRow the row to start after, which need not be selected, or -1 to start at the
+     *                 beginning
+     * @return iterator over the selected rows in order
+     */
+    public PrimitiveIterator.OfInt iterator(BitSet rows, boolean ascending, int afterRow) {
+        return iteratorAfter(rows, ascending, afterRow < 0 ? (ascending ? -1 : order.length)
+                : positions[afterRow]);
+    }
+
+    /**
+     * Iterates over the selected rows that come after a given position in sorted order.
+     *
+     * @param rows the selected rows
+     * @param ascending the sort direction
+     * @param start the position to start after, -1 ascending or {@link #size()} descending to
+     *              start at the beginning
+     * @return iterator over the selected rows in order
+     * @see #iterator(BitSet, boolean, int)
+     */
+    PrimitiveIterator.OfInt iteratorAfter(BitSet rows, boolean ascending, int start) {
+        boolean fromBeginning = start == (ascending ? -1 : order.length);
+        int count = rows.cardinality();
+        if ((long) count * WALK_RATIO < order.length) {
+            int[] sorted = sortedRows(rows, ascending);
+            int skip = 0;
+            while (skip < sorted.length && (ascending ? positions[sorted[skip]] <= start
+                    : positions[sorted[skip]] >= start)) {
+                skip++;
+            }
+            return Arrays.stream(sorted, skip, sorted.length).iterator();
+        }
+        return new PrimitiveIterator.OfInt() {
+            /** Position of the last row found. */
+            private int position = start;
+            /** Selected rows not yet found, used to stop without walking to the end. */
+            private int remaining = fromBeginning ? count : Integer.MAX_VALUE;
+            /** Whether the row at position has been found but not returned. */
+            private boolean found;
+
+            @Override
+            public boolean hasNext() {
+                if (found) {
+                    return true;
+                }
+                if (remaining == 0) {
+                    return false;
+                }
+                int step = ascending ? 1 : -1;
+                for (int p = position + step; p >= 0 && p < order.length; p += step) {
+                    if (rows.get(order[p])) {
+                        position = p;
+                        found = true;
+                        remaining--;
+                        return true;
+                    }
+                }
+                remaining = 0;
+                return false;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                found = false;
+                return order[position];
+            }
+        };
+    }
+
+    /**
+     * Finds the position to continue after a game in sorted order, by binary search on its sort
+     * key. The game need not be in the store any more, nor have the same key as it has now: the
+     * position is that of the last row at or before the key in the direction of the walk, so the
+     * walk goes on with the first row after it.
+     *
+     * @param store the store the index is of
+     * @param value the game's value in the column, ignored for name and id
+     * @param lowerName the game's lower cased name
+     * @param id the game's id
+     * @param ascending the sort direction
+     * @return the position to start after, as {@link #iteratorAfter(BitSet, boolean, int)} takes
+     */
+    int positionAfter(GameStore store, double value, String lowerName, int id,
+            boolean ascending) {
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int result = compareToKey(store, order[mid], value, lowerName, id);
+            if (result < 0 || ascending && result == 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        // low rows sort before the key (ascending: at or before it)
+        return ascending ? low - 1 : low;
+    }
+
+    /**
+     * Compares a row with a sort key, in the order of {@link #comparator(GameStore, GameData)}.
+     *
+     * @param store the store the index is of
+     * @param row the row
+     * @param value the key's value in the column, ignored for name and id
+     * @param lowerName the key's lower cased name
+     * @param id the key's id
+     * @return negative, zero or positive as the row sorts before, with or after the key
+     */
+    private int compareToKey(GameStore store, int row, double value, String lowerName, int id) {
+        int result = 0;
+        if (GameStore.isDoubleColumn(column)) {
+            result = Double.compare(store.doubleColumn(column)[row], value);
+        } else if (column != GameData.NAME && column != GameData.ID) {
+            result = Double.compare(store.intColumn(column)[row], value);
+        }
+        if (result == 0) {
+            result = compareNames(store.getLowerName(row), lowerName);
+        }
+        return result != 0 ? result : Integer.compare(store.getId(row), id);
+    }
+
+    /**
+     * Compares lower cased names, null names first.
+     *
+     * @param a first name
+     * @param b second name
+     * @return comparison result
+     */
+    private static int compareNames(String a, String b) {
+        if (a == null || b == null) {
+            return a == b ? 0 : (a == null ? -1 : 1);
+        }
+        return a.compareTo(b);
+    }
+
+    /**
+     * Reverses the start of an array in place.
+     *
+     * @param values the array
+     * @param count the number of values to reverse
+     */
+    private static void reverse(int[] values, int count) {
+        for (int i = 0, j = count - 1; i < j; i++, j--) {
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+    }
+
+    /**
+     * Stable merge sort of rows, so rows that compare equal stay in row order.
+     *
+     * @param rows the rows to sort
+     * @param scratch scratch space the same size as rows
+     * @param from first index, inclusive
+     * @param to last index, exclusive
+     * @param comparator the row comparator
+     */
+    private static void mergeSort(int[] rows, int[] scratch, int from, int to,
+            RowComparator comparator) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(rows, scratch, from, mid, comparator);
+        mergeSort(rows, scratch, mid, to, comparator);
+        if (comparator.compare(rows[mid - 1], rows[mid]) <= 0) {
+            return; // already in order
+        }
+        System.arraycopy(rows, from, scratch, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < mid && comparator.compare(scratch[left],
+                    scratch[right]) <= 0)) {
+                rows[i] = scratch[left++];
+            } else {
+                rows[i] = scratch[right++];
+            }
+        }
+    }
+
+    /** Compares two rows of a store. */
+    @FunctionalInterface
+    private interface RowComparator {
+        /**
+         * Compares two rows.
+         *
+         * @param a first row
+         * @param b second row
+         * @return negative, zero or positive as the first row sorts before, with or after the second
+         */
+        int compare(int a, int b);
+    }
+}
@@ -0,0 +1,366 @@
+package student;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Inverted index from every three character sequence (trigram) of the lower cased names to the
+ * rows whose name contains it.
+ * <p>
+ * A {@code name~=text} condition with at least three characters can only match rows that contain
+ * every trigram of the text, so the posting lists of those trigrams are intersected (smallest
+ * first) and only the surviving candidates are checked with {@link String#contains}. Shorter text
+ * falls back to checking the already lower cased names directly.
+ * <p>
+ * Trigrams are packed into a long and kept in an open addressing table, so lookups do not box,
+ * and refining works in per thread {@link Scratch} buffers, so it does not allocate.
+ */
+public final class TrigramIndex {
+    /** Length of the indexed sequences. */
+    private static final int GRAM = 3;
+    /** Marks an empty slot in the table, no trigram packs to this value. */
+    private static final long EMPTY = -1L;
+
+    /** The store the index was built for. */
+    private final GameStore store;
+    /** Packed trigrams, EMPTY for unused slots. */
+    private long[] keys;
+    /** Sorted rows for each trigram in the matching slot of keys. */
+    private int[][] postings;
+    /** Number of rows in each posting list. */
+    private int[] lengths;
+    /** Number of distinct trigrams. */
+    private int count;
+
+    /**
+     * Builds the index over the lower cased names of a store.
+     *
+     * @param store the store to index
+     */
+    TrigramIndex(GameStore store) {
+        this.store = store;
+        allocate(store.size());
+        for (int row = 0; row < store.size(); row++) {
+            addName(row);
+        }
+        trim();
+    }
+
+    /**
+     * Builds the index for a store made by changing an earlier one, from the earlier index.
+     *
+     * @param previous the index of the earlier store
+     * @param renumber the row of each earlier row in the new store, or -1 if it was removed
+     * @param firstAdded the first row added to the new store, every row before it was kept
+     * @param store the new store
+     * @see #merge(TrigramIndex, int[], int, GameStore)
+     */
+    private TrigramIndex(TrigramIndex previous, int[] renumber, int firstAdded, GameStore store) {
+        this.store = store;
+        allocate(store.size());
+        for (int i = 0; i < previous.keys.length; i++) {
+            if (previous.keys[i] == EMPTY) {
+                continue;
+            }
+            int[] rows = new int[previous.lengths[i]];
+            int length = 0;
+            for (int j = 0; j < rows.length; j++) {
+                int row = renumber[previous.postings[i][j]];
+                if (row >= 0) {
+                    rows[length++] = row;
+                }
+            }
+            if (length > 0) {
+                put(previous.keys[i], rows, length);
+            }
+        }
+        for (int row = firstAdded; row < store.size(); row++) {
+            addName(row);
+        }
+        trim();
+    }
+
+    /**
+     * Builds the index for a store made by changing an earlier one, from the earlier index.
+     * <p>
+     * Kept rows keep their relative order, so each posting list is renumbered in place of being
+     * built again from the names, and stays sorted. Only the names of the rows added after them
+     * are split into trigrams, and their rows go at the end of the lists. Trigrams left with no
+     * rows are dropped.
+     *
+     * @param previous the index of the earlier store
+     * @param renumber the row of each earlier row in the new store, or -1 if it was removed
+     * @param firstAdded the first row added to the new store, every row before it was kept
+     * @param store the new store
+     * @return the index
+     */
+    static TrigramIndex merge(TrigramIndex previous, int[] renumber, int firstAdded,
+            GameStore store) {
+        return new TrigramIndex(previous, renumber, firstAdded, store);
+    }
+
+    /**
+     * Get the number of distinct trigrams in the index.
+     *
+     * @return the number of trigrams
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Gets an upper bound on the number of rows whose name contains the text, from the smallest
+     * posting list of its trigrams.
+     *
+     * @param lowerText the lower cased text
+     * @return the upper bound, or -1 if the text is too short to use the index
+     */
+    public int estimate(String lowerText) {
+        if (lowerText.length() < GRAM) {
+            return -1;
+        }
+        int smallest = Integer.MAX_VALUE;
+        for (int i = 0; i + GRAM <= lowerText.length(); i++) {
+            int slot = find(pack(lowerText, i));
+            smallest = Math.min(smallest, slot < 0 ? 0 : lengths[slot]);
+        }
+        return smallest;
+    }
+
+    /**
+     * Clears the selected rows whose name does not contain the text (an AND into the selection).
+     *
+     * @param lowerText the lower cased text
+     * @param selection the selected rows, updated in place
+     */
+    public void refine(String lowerText, BitSet selection) {
+        int trigrams = lowerText.length() - GRAM + 1;
+        if (trigrams <= 0) {
+            scan(lowerText, selection);
+            return;
+        }
+        Scratch scratch = Scratch.get();
+        int[] slots = scratch.small(trigrams);
+        for (int i = 0; i < trigrams; i++) {
+            slots[i] = find(pack(lowerText, i));
+            if (slots[i] < 0) {
+                selection.clear(); // a trigram no name has
+                return;
+            }
+        }
+        // smallest posting list first, there are only a handful so insertion sort is enough
+        for (int i = 1; i < trigrams; i++) {
+            int slot = slots[i];
+            int j = i - 1;
+            while (j >= 0 && lengths[slots[j]] > lengths[slot]) {
+                slots[j + 1] = slots[j];
+                j--;
+            }
+            slots[j + 1] = slot;
+        }
+
+        int smallest = slots[0];
+        if (selection.cardinality() <= lengths[smallest]) {
+            scan(lowerText, selection); // selection is already smaller than any posting list
+            return;
+        }
+
+        int size = lengths[smallest];
+        int[] candidates = scratch.rows(size);
+        System.arraycopy(postings[smallest], 0, candidates, 0, size);
+        for (int i = 1; i < trigrams && size > 0; i++) {
+            if (slots[i] != slots[i - 1]) {
+                size = intersect(candidates, size, postings[slots[i]]);
+            }
+        }
+
+        BitSet matched = scratch.bits();
+        for (int i = 0; i < size; i++) {
+            int row = candidates[i];
+            if (selection.get(row) && store.getLowerName(row).contains(lowerText)) {
+                matched.set(row);
+            }
+        }
+        selection.and(matched);
+    }
+
+    /**
+     * Checks every selected name directly.
+     *
+     * @param lowerText the lower cased text
+     * @param selection the selected rows, updated in place
+     */
+    private void scan(String lowerText, BitSet selection) {
+        for (int row = selection.nextSetBit(0); row >= 0; row = selection.nextSetBit(row + 1)) {
+            String name = store.getLowerName(row);
+            if (name == null || !name.contains(lowerText)) {
+                selection.clear(row);
+            }
+        }
+    }
+
+    /**
+     * Intersects candidates with a sorted posting list, keeping the result at the front of the
+     * candidates.
+     *
+     * @param candidates sorted candidate rows
+     * @param size number of candidates in use
+     * @param posting sorted posting list
+     * @return the number of candidates left
+     */
+    private static int intersect(int[] candidates, int size, int[] posting) {
+        int kept = 0;
+        int from = 0;
+        for (int i = 0; i < size; i++) {
+            int found = Arrays.binarySearch(posting, from, posting.length, candidates[i]);
+            if (found >= 0) {
+                candidates[kept++] = candidates[i];
+                from = found + 1;
+            } else {
+                from = -found - 1;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Makes an empty table for a number of rows.
+     *
+     * @param rows the number of rows in the store
+     */
+    private void allocate(int rows) {
+        int capacity = Integer.highestOneBit(Math.max(16, rows * 4)) * 2;
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        postings = new int[capacity][];
+        lengths = new int[capacity];
+    }
+
+    /** Shrinks every posting list to its length. */
+    private void trim() {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY && postings[slot].length != lengths[slot]) {
+                postings[slot] = Arrays.copyOf(postings[slot], lengths[slot]);
+            }
+        }
+    }
+
+    /**
+     * Adds a row to the posting lists of every trigram of its name.
+     *
+     * @param row the row, after every row already added
+     */
+    private void addName(int row) {
+        String name = store.getLowerName(row);
+        if (name == null) {
+            return;
+        }
+        for (int i = 0; i + GRAM <= name.length(); i++) {
+            add(pack(name, i), row);
+        }
+    }
+
+    /**
+     * Puts a trigram that is not in the table yet, with its posting list.
+     *
+     * @param key the packed trigram
+     * @param rows the sorted rows, becomes the index's own
+     * @param length the number of rows in use
+     */
+    private void put(long key, int[] rows, int length) {
+        int slot = slotFor(key);
+        keys[slot] = key;
+        postings[slot] = rows;
+        lengths[slot] = length;
+        count++;
+        if (count * 2 > keys.length) {
+            rehash();
+        }
+    }
+
+    /**
+     * Adds a row to the posting list of a trigram. Rows are added in increasing order, so the list
+     * stays sorted and a repeat of the last row is skipped.
+     *
+     * @param key the packed trigram
+     * @param row the row
+     */
+    private void add(long key, int row) {
+        int slot = slotFor(key);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            postings[slot] = new int[4];
+            count++;
+            if (count * 2 > keys.length) {
+                rehash();
+                slot = slotFor(key);
+            }
+        }
+        int length = lengths[slot];
+        if (length > 0 && postings[slot][length - 1] == row) {
+            return;
+        }
+        if (length == postings[slot].length) {
+            postings[slot] = Arrays.copyOf(postings[slot], length * 2);
+        }
+        postings[slot][length] = row;
+        lengths[slot] = length + 1;
+    }
+
+    /** Doubles the table. */
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[][] oldPostings = postings;
+        int[] oldLengths = lengths;
+        keys = new long[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        postings = new int[keys.length][];
+        lengths = new int[keys.length];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slotFor(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                postings[slot] = oldPostings[i];
+                lengths[slot] = oldLengths[i];
+            }
+        }
+    }
+
+    /**
+     * Finds the slot of a trigram.
+     *
+     * @param key the packed trigram
+     * @return the slot, or -1 if the trigram is not indexed
+     */
+    private int find(long key) {
+        int slot = slotFor(key);
+        return keys[slot] == key ? slot : -1;
+    }
+
+    /**
+     * Finds the slot holding a key, or the empty slot where it would go.
+     *
+     * @param key the packed trigram
+     * @return the slot
+     */
+    private int slotFor(long key) {
+        int mask = keys.length - 1;
+        int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Packs the three characters starting at an index into a long.
+     *
+     * @param text the text
+     * @param index the first character
+     * @return the packed trigram
+     */
+    private static long pack(String text, int index) {
+        return ((long) text.charAt(index) << 32) | ((long) text.charAt(index + 1) << 16)
+                | text.charAt(index + 2);
+    }
+}
@@ -0,0 +1,53 @@
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.junit.jupiter.api.Test;
+import student.BoardGame;
+import student.CatalogueGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test for equals and hashCode of the BoardGame class.
+ */
+public class BoardGameTest {
+    /** Fields the reflection based equals and hashCode left out. */
+    private static final List<String> EXCLUDED = List.of("minPlayers", "maxPlayers",
+            "maxPlayTime", "minPlayTime", "difficulty", "rank", "averageRating", "yearPublished",
+            "hash");
+
+    @Test
+    public void testHashCodeMatchesReflection() {
+        List<BoardGame> games = new ArrayList<>(new CatalogueGenerator(1).stream(2_000).toList());
+        games.add(new BoardGame(null, 5, 1, 2, 3, 4, 5.0, 6, 7.0, 8));
+        games.add(new BoardGame("", -5, 1, 2, 3, 4, 5.0, 6, 7.0, 8));
+        for (BoardGame game : games) {
+            assertEquals(HashCodeBuilder.reflectionHashCode(game, EXCLUDED), game.hashCode());
+        }
+    }
+
+    @Test
+    public void testEqualsMatchesReflection() {
+        List<BoardGame> games = List.of(
+                new BoardGame("Catan", 1, 3, 4, 60, 30, 2.5, 1, 4.5, 1995),
+                new BoardGame("Catan", 1, 2, 6, 90, 60, 3.5, 9, 1.5, 2005),
+                new BoardGame("Catan", 2, 3, 4, 60, 30, 2.5, 1, 4.5, 1995),
+                new BoardGame("catan", 1, 3, 4, 60, 30, 2.5, 1, 4.5, 1995),
+                new BoardGame(null, 1, 3, 4, 60, 30, 2.5, 1, 4.5, 1995),
+                new BoardGame(null, 1, 1, 1, 1, 1, 1.0, 1, 1.0, 1),
+                new BoardGame("Catan", 1, 3, 4, 60, 30, 2.5, 1, 4.5, 1995) { });
+        for (BoardGame a : games) {
+            assertFalse(a.equals(null));
+            assertFalse(a.equals("Catan"));
+            for (BoardGame b : games) {
+                assertEquals(EqualsBuilder.reflectionEquals(a, b, EXCLUDED), a.equals(b),
+                        a + " " + b);
+                if (a.equals(b)) {
+                    assertEquals(a.hashCode(), b.hashCode());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+import org.junit.jupiter.api.Test;
+import student.BoardGame;
+import student.CatalogueGenerator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test for the CatalogueGenerator class.
+ */
+public class CatalogueGeneratorTest {
+
+    private static String write(long seed, long rows) throws IOException {
+        StringWriter out = new StringWriter();
+        new CatalogueGenerator(seed).write(out, rows);
+        return out.toString();
+    }
+
+    @Test
+    public void testSameSeedSameCatalogue() throws IOException {
+        assertEquals(write(7, 500), write(7, 500));
+        assertNotEquals(write(7, 500), write(8, 500));
+    }
+
+    @Test
+    public void testHeaderMatchesCollection() throws IOException {
+        String header;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                getClass().getResourceAsStream("/collection.csv"), StandardCharsets.UTF_8))) {
+            header = reader.readLine();
+        }
+        String[] lines = write(1, 100).split("\n");
+        assertEquals(header, lines[0]);
+        assertEquals(101, lines.length);
+        int columns = header.split(",", -1).length;
+        for (int i = 1; i < lines.length; i++) {
+            assertEquals(columns, lines[i].split(",", -1).length, lines[i]);
+        }
+    }
+
+    @Test
+    public void testGamesArePlausible() {
+        List<BoardGame> games = new CatalogueGenerator().stream(5000).toList();
+        assertEquals(5000, games.size());
+        Set<Integer> ids = new HashSet<>();
+        for (BoardGame game : games) {
+            assertTrue(ids.add(game.getId()));
+            assertFalse(game.getName().isBlank());
+            assertFalse(game.getName().contains(","));
+            assertTrue(game.getMinPlayers() <= game.getMaxPlayers());
+            assertTrue(game.getMinPlayTime() <= game.getMaxPlayTime());
+            assertTrue(game.getRating() >= 0 && game.getRating() <= 10);
+            assertTrue(game.getDifficulty() >= 0 && game.getDifficulty() <= 5);
+            assertTrue(game.getRank() >= 0);
+        }
+    }
+}
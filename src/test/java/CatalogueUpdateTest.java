@@ -0,0 +1,138 @@
+import org.junit.jupiter.api.Test;
+import student.BoardGame;
+import student.CatalogueGenerator;
+import student.CatalogueUpdate;
+import student.GameData;
+import student.GameStore;
+import student.Planner;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test for applying a CatalogueUpdate to a GameStore and a Planner.
+ */
+public class CatalogueUpdateTest {
+
+    private static List<BoardGame> all(GameStore store) {
+        BitSet rows = new BitSet();
+        rows.set(0, store.size());
+        return store.get(rows);
+    }
+
+    private static void assertSameIndexes(GameStore expected, GameStore actual) {
+        assertEquals(all(expected), all(actual));
+        for (GameData column : GameData.values()) {
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.sortIndex(column).rowAt(i),
+                        actual.sortIndex(column).rowAt(i), column + " at " + i);
+            }
+        }
+        assertEquals(expected.nameIndex().size(), actual.nameIndex().size());
+        for (int i = 0; i < expected.nameIndex().size(); i++) {
+            assertEquals(expected.nameIndex().rowAt(i), actual.nameIndex().rowAt(i));
+        }
+        for (int row = 0; row < expected.size(); row++) {
+            int id = expected.getId(row);
+            assertArrayEquals(expected.rowsWithId(id), actual.rowsWithId(id), "id " + id);
+        }
+        assertEquals(expected.trigramIndex().size(), actual.trigramIndex().size());
+        for (String text : new String[] {"the", "ing", "an ", "ii", "zzz", "brand new"}) {
+            BitSet expectedRows = new BitSet();
+            expectedRows.set(0, expected.size());
+            BitSet actualRows = (BitSet) expectedRows.clone();
+            expected.trigramIndex().refine(text, expectedRows);
+            actual.trigramIndex().refine(text, actualRows);
+            assertEquals(expectedRows, actualRows, text);
+            assertEquals(expected.trigramIndex().estimate(text),
+                    actual.trigramIndex().estimate(text), text);
+        }
+    }
+
+    @Test
+    public void testApplyMatchesRebuild() {
+        List<BoardGame> games = new ArrayList<>(new CatalogueGenerator(4).stream(3_000).toList());
+        games.add(new BoardGame(null, 5_000, 1, 2, 3, 4, 1.0, 5, 6.0, 2000));
+        GameStore store = GameStore.of(games);
+
+        Random random = new Random(4);
+        CatalogueUpdate update = new CatalogueUpdate();
+        List<Integer> deleted = new ArrayList<>();
+        List<BoardGame> upserted = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            BoardGame game = games.get(random.nextInt(games.size()));
+            if (i % 3 == 0) {
+                update.delete(game.getId());
+                deleted.add(game.getId());
+                upserted.removeIf(g -> g.getId() == game.getId());
+            } else {
+                // new rank and rating, sometimes a new name
+                BoardGame changed = new BoardGame(i % 5 == 0 ? game.getName() + " II"
+                        : game.getName(), game.getId(), game.getMinPlayers(),
+                        game.getMaxPlayers(), game.getMinPlayTime(), game.getMaxPlayTime(),
+                        game.getDifficulty(), random.nextInt(5_000), random.nextDouble() * 10,
+                        game.getYearPublished());
+                update.upsert(changed);
+                deleted.remove(Integer.valueOf(game.getId()));
+                upserted.removeIf(g -> g.getId() == game.getId());
+                upserted.add(changed);
+            }
+        }
+        update.upsert(new BoardGame("Brand New", 9_999, 2, 4, 30, 60, 2.0, 1, 9.0, 2024));
+        upserted.add(new BoardGame("Brand New", 9_999, 2, 4, 30, 60, 2.0, 1, 9.0, 2024));
+
+        List<BoardGame> expected = new ArrayList<>();
+        for (BoardGame game : games) {
+            int id = game.getId();
+            if (!deleted.contains(id) && upserted.stream().noneMatch(g -> g.getId() == id)) {
+                expected.add(game);
+            }
+        }
+        GameStore applied = store.apply(update);
+        // changed ids keep the order they were first changed in, not the order of the list
+        List<BoardGame> appended = all(applied).subList(expected.size(), applied.size());
+        assertEquals(new HashSet<>(upserted), new HashSet<>(appended));
+        expected.addAll(appended);
+        assertSameIndexes(GameStore.of(expected), applied);
+        assertEquals(3_001, store.size()); // the old store is unchanged
+    }
+
+    @Test
+    public void testPlannerSeesWholeUpdate() {
+        Planner planner = new Planner(GameStore.of(List.of(
+                new BoardGame("Go", 1, 2, 2, 30, 60, 3.0, 10, 7.5, 2000),
+                new BoardGame("Chess", 2, 2, 2, 10, 20, 3.7, 5, 7.9, 1900))));
+        assertEquals(List.of("Chess", "Go"), names(planner.filter("", GameData.NAME, true)));
+
+        planner.apply(new CatalogueUpdate()
+                .upsert(new BoardGame("Go", 1, 2, 2, 30, 60, 3.0, 1, 9.5, 2000))
+                .upsert(new BoardGame("Catan", 3, 3, 4, 60, 90, 2.3, 2, 7.1, 1995))
+                .delete(2));
+        assertEquals(List.of("Go", "Catan"), names(planner.filter("", GameData.RATING, false)));
+        assertEquals(List.of("Go"), names(planner.filter("rating>9")));
+
+        planner.delete(1);
+        planner.upsert(new BoardGame("Carcassonne", 4, 2, 5, 30, 45, 1.9, 3, 7.4, 2000));
+        assertEquals(List.of("Carcassonne", "Catan"), names(planner.filter("name~=ca")));
+        assertEquals(List.of("Carcassonne", "Catan"), planner.complete("c", 5));
+    }
+
+    @Test
+    public void testEmptyUpdateKeepsStore() {
+        GameStore store = GameStore.of(List.of(
+                new BoardGame("Go", 1, 2, 2, 30, 60, 3.0, 10, 7.5, 2000)));
+        assertSame(store, store.apply(new CatalogueUpdate()));
+        assertEquals(all(store), all(store.apply(new CatalogueUpdate().delete(7))));
+        assertThrows(IllegalArgumentException.class, () -> new CatalogueUpdate().upsert(null));
+    }
+
+    private static List<String> names(Stream<BoardGame> games) {
+        return games.map(BoardGame::getName).toList();
+    }
+}
@@ -0,0 +1,158 @@
+import org.junit.jupiter.api.Test;
+import student.BoardGame;
+import student.CatalogueUpdate;
+import student.CatalogueVersion;
+import student.GameData;
+import student.GameStore;
+import student.Planner;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test for the versions a Planner publishes and reads while the catalogue changes.
+ */
+public class CatalogueVersionTest {
+
+    /** Number of games in every version. */
+    private static final int GAMES = 2_000;
+
+    /** Builds a catalogue where every game has the rating of the version number. */
+    private static GameStore catalogue(int rating) {
+        List<BoardGame> games = new ArrayList<>();
+        for (int id = 1; id <= GAMES; id++) {
+            games.add(new BoardGame("Game " + id, id, 1, 4, 30, 60, 2.0, id, rating, 2000));
+        }
+        return GameStore.of(games);
+    }
+
+    @Test
+    public void testPublishMovesVersionOn() {
+        Planner planner = new Planner(catalogue(1));
+        CatalogueVersion first = planner.getVersion();
+        assertEquals(1, first.getNumber());
+
+        planner.publish(catalogue(2));
+        assertEquals(2, planner.getVersion().getNumber());
+        assertEquals(2.0, planner.filter("name==Game 1").findFirst().orElseThrow().getRating());
+        // a pinned version still reads its own games
+        assertEquals(1.0, first.getStore().get(0).getRating());
+
+        planner.apply(new CatalogueUpdate().delete(1));
+        assertEquals(3, planner.getVersion().getNumber());
+        assertEquals(GAMES - 1, planner.getStore().size());
+
+        planner.apply(new CatalogueUpdate());
+        assertEquals(3, planner.getVersion().getNumber());
+        assertThrows(IllegalArgumentException.class, () -> planner.publish(null));
+    }
+
+    @Test
+    public void testReadersSeeWholeVersions() throws InterruptedException {
+        Planner planner = new Planner(catalogue(1));
+        planner.setParallelThreshold(GAMES / 2);
+        AtomicBoolean done = new AtomicBoolean();
+        ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch started = new CountDownLatch(4);
+
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            boolean cached = r % 2 == 0;
+            Thread reader = new Thread(() -> {
+                started.countDown();
+                double last = 0;
+                while (!done.get()) {
+                    List<BoardGame> result = cached
+                            ? planner.filter("minPlayers>0", GameData.RANK).toList()
+                            : planner.filter("minPlayers>0", GameData.RANK, true, 0, GAMES)
+                                    .toList();
+                    List<Double> ratings = result.stream().map(BoardGame::getRating)
+                            .distinct().collect(Collectors.toList());
+                    if (result.size() != GAMES || ratings.size() != 1) {
+                        failures.add("mixed result: " + result.size() + " games, " + ratings);
+                    } else if (ratings.get(0) < last) {
+                        failures.add("went back from " + last + " to " + ratings.get(0));
+                    } else {
+                        last = ratings.get(0);
+                    }
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        started.await();
+        for (int v = 2; v <= 40; v++) {
+            planner.publish(catalogue(v));
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertTrue(failures.isEmpty(), () -> failures.peek());
+        assertEquals(40, planner.getVersion().getNumber());
+        assertEquals(40.0, planner.filter("minPlayers>0").findFirst().orElseThrow().getRating());
+    }
+
+    /** Filters the current version, with the filters cached, then replaces it. */
+    private static WeakReference<GameStore> filterThenPublish(Planner planner) {
+        WeakReference<GameStore> old = new WeakReference<>(planner.getStore());
+        planner.filter("minPlayers>0,rating>0", GameData.RANK).toList();
+        planner.filter("minPlayers>0", GameData.RANK, true, 0, 10).toList();
+        planner.page("name~=game", GameData.NAME, true, 10, null);
+        planner.publish(catalogue(2));
+        return old;
+    }
+
+    @Test
+    public void testReplacedVersionsCanBeReclaimed() throws InterruptedException {
+        Planner planner = new Planner(catalogue(1));
+        WeakReference<GameStore> old = filterThenPublish(planner);
+        for (int i = 0; i < 100 && old.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        // the cached filters are still there, but no longer hold on to the old games
+        assertNull(old.get());
+        assertEquals(GAMES, planner.filter("minPlayers>0,rating>0", GameData.RANK).count());
+    }
+
+    @Test
+    public void testConcurrentWritersEachApplyOnce() throws InterruptedException {
+        Planner planner = new Planner(catalogue(1));
+        int writers = 8;
+        int batches = 25;
+        CountDownLatch started = new CountDownLatch(writers);
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            Thread thread = new Thread(() -> {
+                started.countDown();
+                for (int b = 0; b < batches; b++) {
+                    int id = GAMES + 1 + writer * batches + b;
+                    planner.apply(new CatalogueUpdate().upsert(new BoardGame("Added " + id, id,
+                            1, 4, 30, 60, 2.0, id, 1.0, 2000)).delete(writer * batches + b + 1));
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        started.await();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // every batch is one version, none lost or applied twice
+        assertEquals(1 + writers * batches, planner.getVersion().getNumber());
+        assertEquals(GAMES, planner.getStore().size());
+        assertEquals(writers * batches, planner.filter("name~=Added").count());
+    }
+}
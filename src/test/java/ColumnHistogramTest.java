@@ -0,0 +1,71 @@
+import org.junit.jupiter.api.Test;
+import student.BoardGame;
+import student.ColumnHistogram;
+import student.FilterCompiler;
+import student.FilterCondition;
+import student.GameData;
+import student.GameStore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test for the ColumnHistogram class.
+ */
+public class ColumnHistogramTest {
+
+    private static FilterCondition condition(String text) {
+        return FilterCompiler.compile(text).getConditions().get(0);
+    }
+
+    @Test
+    public void testEstimatesFollowEvenlySpreadColumn() {
+        int size = 6_400;
+        List<BoardGame> games = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            // ratings of every tenth game are missing
+            games.add(new BoardGame("Game " + i, i, 1 + i % 4, 4, 30, 60, 2.0, size - i,
+                    i % 10 == 0 ? Double.NaN : i / 640.0, i));
+        }
+        GameStore store = GameStore.of(games);
+
+        ColumnHistogram years = store.histogram(GameData.YEAR);
+        assertEquals(0, years.getMin());
+        assertEquals(size - 1, years.getMax());
+        for (int year : new int[] {0, 1, 100, 3_217, 5_000, 6_399}) {
+            // within a bucket of the truth
+            assertEquals(year, years.estimate(condition("year<" + year)), size / 64.0,
+                    "<" + year);
+        }
+        assertEquals(size, years.estimate(condition("year>=0")));
+        assertEquals(size, years.estimate(condition("year<=6399")));
+        assertEquals(0, years.estimate(condition("year>6399")));
+        assertEquals(0, years.estimate(condition("year==-1")));
+
+        ColumnHistogram ratings = store.histogram(GameData.RATING);
+        assertEquals(1 / 640.0, ratings.getMin());
+        assertEquals((size - 1) / 640.0, ratings.getMax());
+        assertEquals(size - size / 10, ratings.estimate(condition("rating>=0")));
+        assertEquals(size - size / 10, ratings.estimate(condition("rating<=10")));
+
+        ColumnHistogram minPlayers = store.histogram(GameData.MIN_PLAYERS);
+        assertEquals(size / 4, minPlayers.estimate(condition("minPlayers==1")), size / 64.0);
+    }
+
+    @Test
+    public void testEmptyAndConstantColumns() {
+        GameStore empty = GameStore.of(List.of());
+        assertEquals(0, empty.histogram(GameData.RANK).estimate(condition("rank>1")));
+
+        GameStore same = GameStore.of(List.of(
+                new BoardGame("Go", 1, 2, 2, 30, 60, 3.0, 10, 7.5, 2000),
+                new BoardGame("Chess", 2, 2, 2, 10, 20, 3.7, 5, 7.9, 2000)));
+        ColumnHistogram years = same.histogram(GameData.YEAR);
+        assertEquals(2000, years.getMin());
+        assertEquals(2000, years.getMax());
+        assertEquals(2, years.estimate(condition("year==2000")));
+        assertEquals(0, years.estimate(condition("year>2000")));
+    }
+}
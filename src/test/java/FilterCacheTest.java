@@ -0,0 +1,99 @@
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import student.BoardGame;
+import student.FilterCache;
+import student.GameData;
+import student.Planner;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test for the FilterCache class.
+ */
+public class FilterCacheTest {
+    private static Set<BoardGame> games;
+
+    @BeforeAll
+    public static void setup() {
+        games = new HashSet<>();
+        games.add(new BoardGame("17 days", 6, 1, 8, 70, 70, 9.0, 600, 9.0, 2005));
+        games.add(new BoardGame("Chess", 7, 2, 2, 10, 20, 10.0, 700, 10.0, 2006));
+        games.add(new BoardGame("Go", 1, 2, 5, 30, 30, 8.0, 100, 7.5, 2000));
+        games.add(new BoardGame("Go Fish", 2, 2, 10, 20, 120, 3.0, 200, 6.5, 2001));
+    }
+
+    @Test
+    public void testNormalize() {
+        assertEquals("minplayers>=2,name~=go", FilterCache.normalize(" minPlayers >= 2 , Name ~= Go "));
+        assertEquals("name==go fish", FilterCache.normalize("name == Go Fish"));
+        assertEquals("", FilterCache.normalize(null));
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+        Planner planner = new Planner(games);
+        planner.filter("minPlayers >= 2").toList();
+        planner.filter("minplayers>=2").toList();
+        planner.filter("minplayers>=2", GameData.RATING).toList();
+        assertEquals(1, planner.getFilterCache().getHits());
+        assertEquals(2, planner.getFilterCache().getMisses());
+    }
+
+    @Test
+    public void testEviction() {
+        Planner planner = new Planner(games, 2);
+        planner.filter("minPlayers>1").toList();
+        planner.filter("minPlayers>2").toList();
+        planner.filter("minPlayers>3").toList();
+        assertEquals(2, planner.getFilterCache().size());
+        assertEquals(1, planner.getFilterCache().getEvictions());
+        planner.filter("minPlayers>1").toList(); // evicted, so a miss
+        assertEquals(0, planner.getFilterCache().getHits());
+    }
+
+    @Test
+    public void testZeroCapacityStoresNothing() {
+        Planner planner = new Planner(games, 0);
+        planner.filter("minPlayers>1").toList();
+        planner.filter("minPlayers>1").toList();
+        assertEquals(0, planner.getFilterCache().size());
+        assertEquals(0, planner.getFilterCache().getEvictions());
+        assertEquals(0, planner.getFilterCache().getHits());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        Planner planner = new Planner(games, 2);
+        planner.filter("minPlayers>1").toList();
+        planner.filter("minPlayers>2").toList();
+        planner.filter("minPlayers>1").toList(); // a hit, so >2 is now the eldest
+        planner.filter("minPlayers>3").toList();
+        planner.filter("minPlayers>1").toList();
+        assertEquals(2, planner.getFilterCache().getHits());
+        assertEquals(1, planner.getFilterCache().getEvictions());
+    }
+
+    @Test
+    public void testResetInvalidates() {
+        Planner planner = new Planner(games);
+        planner.filter("minPlayers>1").toList();
+        planner.reset();
+        List<BoardGame> afterReset = planner.filter("minPlayers>1").toList();
+        assertEquals(3, afterReset.size());
+        assertEquals(0, planner.getFilterCache().getHits());
+        assertEquals(2, planner.getFilterCache().getMisses());
+    }
+
+    @Test
+    public void testCachedResultIsSorted() {
+        Planner planner = new Planner(games);
+        planner.filter("", GameData.RATING, false).toList();
+        List<BoardGame> cached = planner.filter("", GameData.RATING, false).toList();
+        assertEquals("Chess", cached.get(0).getName());
+        assertEquals(1, planner.getFilterCache().getHits());
+    }
+}
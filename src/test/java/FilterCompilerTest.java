@@ -0,0 +1,76 @@
+import org.junit.jupiter.api.Test;
+import student.BoardGame;
+import student.CompiledFilter;
+import student.FilterCompiler;
+import student.FilterCondition;
+import student.GameData;
+import student.Operations;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test for the FilterCompiler class.
+ */
+public class FilterCompilerTest {
+    private static final BoardGame GO_FISH =
+            new BoardGame("Go Fish", 2, 2, 10, 20, 120, 3.0, 200, 6.5, 2001);
+
+    @Test
+    public void testCompileSingleNumeric() {
+        CompiledFilter filter = FilterCompiler.compile("minPlayers >= 2");
+        assertEquals(1, filter.getConditions().size());
+        FilterCondition condition = filter.getConditions().get(0);
+        assertEquals(GameData.MIN_PLAYERS, condition.getColumn());
+        assertEquals(Operations.GREATER_THAN_EQUALS, condition.getOperator());
+        assertEquals(2, condition.getIntOperand());
+        assertTrue(filter.test(GO_FISH));
+    }
+
+    @Test
+    public void testCompileMultiple() {
+        CompiledFilter filter = FilterCompiler.compile("name~=fish, maxPlaytime>100, rating<7.0");
+        assertEquals(3, filter.getConditions().size());
+        assertEquals(7.0, filter.getConditions().get(2).getDoubleOperand());
+        assertTrue(filter.test(GO_FISH));
+        assertFalse(FilterCompiler.compile("name~=fish, rating>7.0").test(GO_FISH));
+    }
+
+    @Test
+    public void testConditionsEqualIgnoringCase() {
+        FilterCondition upper = FilterCompiler.compile("name~=Catan").getConditions().get(0);
+        FilterCondition lower = FilterCompiler.compile("name~=catan").getConditions().get(0);
+        assertEquals(upper, lower);
+        assertEquals(upper.hashCode(), lower.hashCode());
+        assertNotEquals(upper, FilterCompiler.compile("name~=cat").getConditions().get(0));
+        assertNotEquals(upper, FilterCompiler.compile("name==catan").getConditions().get(0));
+    }
+
+    @Test
+    public void testCompileNameOperators() {
+        assertTrue(FilterCompiler.compile("name == go fish").test(GO_FISH));
+        assertTrue(FilterCompiler.compile("name != chess").test(GO_FISH));
+        assertTrue(FilterCompiler.compile("name > go").test(GO_FISH));
+        assertFalse(FilterCompiler.compile("name < go").test(GO_FISH));
+    }
+
+    @Test
+    public void testInvalidConditionsAreDropped() {
+        CompiledFilter filter = FilterCompiler.compile("invalid filter, bogus>3, id==2,");
+        assertTrue(filter.isEmpty());
+        assertTrue(filter.test(GO_FISH));
+    }
+
+    @Test
+    public void testUnparseableValueMatchesNothing() {
+        assertTrue(FilterCompiler.compile("minPlayers>abc").matchesNothing());
+        assertTrue(FilterCompiler.compile("minPlayers>2.5").matchesNothing());
+        assertTrue(FilterCompiler.compile("rank~=2").matchesNothing());
+        assertFalse(FilterCompiler.compile("difficulty>2").matchesNothing());
+    }
+
+    @Test
+    public void testEmptyFilter() {
+        assertTrue(FilterCompiler.compile("").isEmpty());
+        assertTrue(FilterCompiler.compile(null).isEmpty());
+    }
+}
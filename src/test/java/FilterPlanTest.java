@@ -0,0 +1,123 @@
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import student.BoardGame;
+import student.FilterCompiler;
+import student.FilterPlan;
+import student.GameData;
+import student.GameStore;
+import student.Planner;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test for the FilterPlan class.
+ */
+public class FilterPlanTest {
+    private static Set<BoardGame> games;
+
+    @BeforeAll
+    public static void setup() {
+        games = new HashSet<>();
+        games.add(new BoardGame("17 days", 6, 1, 8, 70, 70, 9.0, 600, 9.0, 2005));
+        games.add(new BoardGame("Chess", 7, 2, 2, 10, 20, 10.0, 700, 10.0, 2006));
+        games.add(new BoardGame("Go", 1, 2, 5, 30, 30, 8.0, 100, 7.5, 2000));
+        games.add(new BoardGame("Go Fish", 2, 2, 10, 20, 120, 3.0, 200, 6.5, 2001));
+        games.add(new BoardGame("golang", 4, 2, 7, 50, 55, 7.0, 400, 9.5, 2003));
+        games.add(new BoardGame("GoRami", 3, 6, 6, 40, 42, 5.0, 300, 8.5, 2002));
+        games.add(new BoardGame("Monopoly", 8, 6, 10, 20, 1000, 1.0, 800, 5.0, 2007));
+        games.add(new BoardGame("Tucano", 5, 10, 20, 60, 90, 6.0, 500, 8.0, 2004));
+    }
+
+    @Test
+    public void testNumericBeforeContains() {
+        GameStore store = GameStore.of(games);
+        FilterPlan plan = FilterPlan.plan(store, FilterCompiler.compile("name~=go, year<2002"));
+        List<FilterPlan.Step> steps = plan.getSteps();
+        assertEquals(GameData.YEAR, steps.get(0).getCondition().getColumn());
+        assertTrue(steps.get(0).isIndexed());
+        assertEquals(GameData.NAME, steps.get(1).getCondition().getColumn());
+    }
+
+    @Test
+    public void testExplainRecordsActualRows() {
+        Planner planner = new Planner(games);
+        FilterPlan plan = planner.explain("name~=go, year<2002");
+        assertEquals(2, plan.getSteps().get(0).getActualRows()); // Go, Go Fish
+        assertEquals(2, plan.getSteps().get(1).getActualRows());
+        assertTrue(plan.getSteps().get(0).getEstimatedRows() > 0);
+        assertTrue(plan.toString().contains("year"));
+    }
+
+    @Test
+    public void testStopsWhenEmpty() {
+        GameStore store = GameStore.of(games);
+        FilterPlan plan = FilterPlan.plan(store, FilterCompiler.compile("year>3000, name~=go"));
+        BitSet rows = new BitSet();
+        plan.execute(store, rows, true);
+        assertTrue(rows.isEmpty());
+        for (FilterPlan.Step step : plan.getSteps()) {
+            assertEquals(0, step.getActualRows());
+        }
+    }
+
+    @Test
+    public void testSameResultsAsUnplanned() {
+        GameStore store = GameStore.of(games);
+        String[] filters = {"minPlayers>=2, maxPlayers<=5", "name>go, rating<9", "rank!=100",
+            "difficulty==7.0, name~=o", "maxPlaytime>50, minPlaytime<=40, year>=2001"};
+        for (String filter : filters) {
+            BitSet expected = new BitSet();
+            for (int row = 0; row < store.size(); row++) {
+                if (FilterCompiler.compile(filter).test(store.get(row))) {
+                    expected.set(row);
+                }
+            }
+            BitSet actual = new BitSet();
+            store.select(FilterCompiler.compile(filter), actual);
+            assertEquals(expected, actual, filter);
+        }
+    }
+
+    @Test
+    public void testParallelSameAsSequential() {
+        Random random = new Random(42);
+        GameStore.Builder builder = new GameStore.Builder();
+        for (int i = 0; i < 100_000; i++) {
+            builder.add("game " + random.nextInt(20_000), i, 1 + random.nextInt(4),
+                    2 + random.nextInt(10), 10 * random.nextInt(12), 30 + random.nextInt(300),
+                    random.nextDouble() * 5, i + 1, random.nextDouble() * 10,
+                    1950 + random.nextInt(75));
+        }
+        GameStore store = builder.build();
+        String[] filters = {"", "minPlayers>=2, maxPlayers<=5", "name~=12, rating>5",
+            "rank<500", "year==2000, difficulty<2.5", "name>=game 5, name<game 6", "rank<0"};
+        for (String filter : filters) {
+            BitSet expected = new BitSet();
+            store.select(FilterCompiler.compile(filter), expected);
+            BitSet actual = new BitSet();
+            store.select(FilterCompiler.compile(filter), actual, ForkJoinPool.commonPool());
+            assertEquals(expected, actual, filter);
+        }
+    }
+
+    @Test
+    public void testParallelPlannerKeepsOrder() {
+        Planner sequential = new Planner(games);
+        Planner parallel = new Planner(games);
+        parallel.setParallelThreshold(0);
+        for (GameData column : GameData.values()) {
+            assertEquals(sequential.filter("minPlayers>=2", column, false)
+                    .collect(Collectors.toList()),
+                    parallel.filter("minPlayers>=2", column, false).collect(Collectors.toList()));
+        }
+        assertThrows(IllegalArgumentException.class, () -> parallel.setParallelThreshold(-1));
+    }
+}
@@ -2,8 +2,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import student.BoardGame;
+import student.GameData;
 import student.GameList;
 import student.IGameList;
+import student.Planner;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -44,6 +46,28 @@ public class GameListTest {
         assertTrue(gameList.getGameNames().isEmpty());
     }
 
+    @Test
+    public void testNamesSortAsThePlannerSortsThem() {
+        List<BoardGame> odd = List.of(
+                new BoardGame("Zebra", 11, 1, 2, 10, 20, 1.0, 1, 5.0, 2000),
+                new BoardGame("_Tiny", 12, 1, 2, 10, 20, 1.0, 2, 5.0, 2000),
+                new BoardGame("[Bracket]", 13, 1, 2, 10, 20, 1.0, 3, 5.0, 2000),
+                new BoardGame("apple", 14, 1, 2, 10, 20, 1.0, 4, 5.0, 2000),
+                new BoardGame("\u0131ota", 15, 1, 2, 10, 20, 1.0, 5, 5.0, 2000), // dotless i
+                new BoardGame("Iz", 16, 1, 2, 10, 20, 1.0, 6, 5.0, 2000));
+        gameList.addToList("all", odd.stream());
+        List<String> expected = List.of("[Bracket]", "_Tiny", "apple", "Iz", "Zebra",
+                "\u0131ota");
+        assertEquals(expected, gameList.getGameNames());
+        assertEquals(expected, new Planner(new HashSet<>(odd)).filter("", GameData.NAME)
+                .map(BoardGame::getName).toList());
+
+        gameList.removeFromList("2");
+        assertFalse(gameList.getGameNames().contains("_Tiny"));
+        gameList.removeFromList("\u0131OTA");
+        assertEquals(List.of("[Bracket]", "apple", "Iz", "Zebra"), gameList.getGameNames());
+    }
+
     @Test
     public void testAddSingleGameByNumber() {
         List<BoardGame> gamesList = new ArrayList<>(games);
@@ -136,4 +160,19 @@ public class GameListTest {
         assertEquals(3, lines.size());
         Files.delete(path);
     }
+
+    @Test
+    public void testAddRangeReadsOnlyWhatItNeeds() {
+        int[] read = new int[1];
+        gameList.addToList("2-3", games.stream().peek(game -> read[0]++));
+        assertEquals(2, gameList.count());
+        assertEquals(3, read[0]);
+    }
+
+    @Test
+    public void testAddRangePastEndAddsNothing() {
+        assertThrows(IllegalArgumentException.class,
+                () -> gameList.addToList("1-" + (games.size() + 1), games.stream()));
+        assertEquals(0, gameList.count());
+    }
 }
@@ -0,0 +1,100 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import student.BoardGame;
+import student.CatalogueGenerator;
+import student.FilterCompiler;
+import student.GameData;
+import student.GameSnapshot;
+import student.GameStore;
+import student.GamesLoader;
+import student.Planner;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test for the GameSnapshot class.
+ */
+public class GameSnapshotTest {
+
+    private static void assertSameStore(GameStore expected, GameStore actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int row = 0; row < expected.size(); row++) {
+            BoardGame game = expected.get(row);
+            BoardGame other = actual.get(row);
+            assertEquals(game, other);
+            assertEquals(game.toStringWithInfo(GameData.RATING),
+                    other.toStringWithInfo(GameData.RATING));
+            assertEquals(game.getDifficulty(), other.getDifficulty());
+            assertEquals(game.getMaxPlayTime(), other.getMaxPlayTime());
+        }
+        for (GameData column : GameData.values()) {
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.sortIndex(column).rowAt(i),
+                        actual.sortIndex(column).rowAt(i));
+            }
+        }
+        assertEquals(expected.nameIndex().size(), actual.nameIndex().size());
+    }
+
+    @Test
+    public void testRoundTrip(@TempDir Path dir) throws IOException {
+        GameStore store = GamesLoader.loadStore("/collection.csv");
+        Path file = dir.resolve("games.snapshot");
+        GameSnapshot.write(store, file, 10, 20);
+        GameStore read = GameSnapshot.read(file, 10, 20);
+        assertNotNull(read);
+        assertSameStore(store, read);
+
+        List<BoardGame> expected = new Planner(store, 0).filter("minplayers>2,name~=the",
+                GameData.RATING, false).toList();
+        assertEquals(expected, new Planner(read, 0).filter("minplayers>2,name~=the",
+                GameData.RATING, false).toList());
+        BitSet rows = new BitSet();
+        read.select(FilterCompiler.compile("name>=m"), rows);
+        assertFalse(rows.isEmpty());
+    }
+
+    @Test
+    public void testStaleOrDamagedSnapshotIsIgnored(@TempDir Path dir) throws IOException {
+        GameStore store = GameStore.of(List.of(
+                new BoardGame("Go", 1, 2, 5, 30, 30, 8.0, 100, 7.5, 2000),
+                new BoardGame(null, 2, 2, 10, 20, 120, 3.0, 200, 6.5, 2001)));
+        Path file = dir.resolve("games.snapshot");
+        assertNull(GameSnapshot.read(file, 10, 20));
+
+        GameSnapshot.write(store, file, 10, 20);
+        assertNull(GameSnapshot.read(file, 11, 20));
+        assertNull(GameSnapshot.read(file, 10, 21));
+        GameStore read = GameSnapshot.read(file, 10, 20);
+        assertNull(read.getName(1));
+        assertEquals(1, read.nameIndex().size());
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file, bytes);
+        assertNull(GameSnapshot.read(file, 10, 20));
+    }
+
+    @Test
+    public void testLoadStoreWritesAndRefreshesSnapshot(@TempDir Path dir) throws IOException {
+        Path csv = dir.resolve("games.csv");
+        Path snapshot = dir.resolve("games.snapshot");
+        new CatalogueGenerator(9).write(csv, 2_000);
+        GameStore loaded = GamesLoader.loadStore(csv, snapshot);
+        assertTrue(Files.exists(snapshot));
+        assertSameStore(loaded, GamesLoader.loadStore(csv, snapshot));
+
+        new CatalogueGenerator(10).write(csv, 1_000);
+        Files.setLastModifiedTime(csv, FileTime.fromMillis(1_000_000));
+        GameStore refreshed = GamesLoader.loadStore(csv, snapshot);
+        assertEquals(1_000, refreshed.size());
+        assertSameStore(GamesLoader.loadStore(csv), refreshed);
+    }
+}
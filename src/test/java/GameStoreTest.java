@@ -0,0 +1,75 @@
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import student.BoardGame;
+import student.FilterCompiler;
+import student.FilterCondition;
+import student.GameStore;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test for the GameStore class.
+ */
+public class GameStoreTest {
+    private static List<BoardGame> games;
+
+    @BeforeAll
+    public static void setup() {
+        games = List.of(
+                new BoardGame("17 days", 6, 1, 8, 70, 70, 9.0, 600, 9.0, 2005),
+                new BoardGame("Chess", 7, 2, 2, 10, 20, 10.0, 700, 10.0, 2006),
+                new BoardGame("Go", 1, 2, 5, 30, 30, 8.0, 100, 7.5, 2000),
+                new BoardGame("Go Fish", 2, 2, 10, 20, 120, 3.0, 200, 6.5, 2001));
+    }
+
+    @Test
+    public void testOfKeepsGames() {
+        GameStore store = GameStore.of(games);
+        assertEquals(4, store.size());
+        assertSame(games.get(1), store.get(1));
+        assertEquals("go fish", store.getLowerName(3));
+    }
+
+    @Test
+    public void testBuilderMaterializes() {
+        GameStore.Builder builder = new GameStore.Builder(1);
+        games.forEach(builder::add);
+        GameStore store = builder.build();
+        assertEquals(4, store.size());
+        BoardGame chess = store.get(1);
+        assertEquals(games.get(1), chess);
+        assertEquals(10.0, chess.getRating());
+        assertEquals(2006, chess.getYearPublished());
+    }
+
+    @Test
+    public void testSelect() {
+        GameStore store = GameStore.of(games);
+        BitSet rows = new BitSet();
+        store.select(FilterCompiler.compile("name~=GO, maxPlayers>5"), rows);
+        assertEquals(1, rows.cardinality());
+        assertTrue(rows.get(3));
+
+        store.select(FilterCompiler.compile("rating>=9.0"), rows);
+        assertEquals(List.of(games.get(0), games.get(1)), store.get(rows));
+
+        store.select(FilterCompiler.compile("year>abc"), rows);
+        assertTrue(rows.isEmpty());
+    }
+
+    @Test
+    public void testRefineAndsIntoSelection() {
+        GameStore store = GameStore.of(games);
+        BitSet rows = new BitSet();
+        rows.set(0, store.size());
+        for (FilterCondition condition
+                : FilterCompiler.compile("minPlayers>=2, maxPlayers<=5").getConditions()) {
+            store.refine(condition, rows);
+        }
+        assertEquals(2, rows.cardinality()); // Chess, Go
+        assertTrue(rows.get(1) && rows.get(2));
+    }
+}
@@ -0,0 +1,166 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import student.BoardGame;
+import student.CatalogueGenerator;
+import student.GameData;
+import student.GameStore;
+import student.GamesLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test for the GamesLoader class.
+ */
+public class GamesLoaderTest {
+    private static final String HEADER = "objectname,objectid,extra,minplayers,maxplayers,"
+            + "minplaytime,maxplaytime,avgweight,rank,average,yearpublished";
+
+    private static Set<BoardGame> games(GameStore store) {
+        BitSet all = new BitSet();
+        all.set(0, store.size());
+        return new HashSet<>(store.get(all));
+    }
+
+    @Test
+    public void testLoadStoreMatchesLoadGamesFile() {
+        Set<BoardGame> expected = GamesLoader.loadGamesFile("/collection.csv");
+        GameStore store = GamesLoader.loadStore("/collection.csv");
+        assertEquals(expected.size(), store.size());
+        assertEquals(expected, games(store));
+    }
+
+    @Test
+    public void testLoadStoreFromPath(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("games.csv");
+        Files.write(file, List.of(HEADER,
+                "Go,1,x,2,2,30,60,3.5,10,7.5,2000",
+                "Chess,2,x,2,2,10,20,3.7,5,7.9,1900",
+                "Go,1,x,4,4,90,90,1.0,99,1.0,2020",
+                "Go,3,x,2,2,30,60,3.5,11,7.4,2001",
+                "Broken,4,x,two,2,30,60,3.5,11,7.4,2001",
+                "Short,5,x,2"));
+        GameStore store = GamesLoader.loadStore(file);
+        assertEquals(3, store.size());
+        assertEquals("Go", store.getName(0));
+        assertEquals(2000, store.get(0).getYearPublished()); // first of the repeated rows is kept
+        assertEquals("Chess", store.getName(1));
+        assertEquals(3, store.getId(2));
+    }
+
+    @Test
+    public void testLoadStoreMissingFile(@TempDir Path dir) {
+        assertEquals(0, GamesLoader.loadStore(dir.resolve("missing.csv")).size());
+        assertEquals(0, GamesLoader.loadStore("/missing.csv").size());
+        assertTrue(GamesLoader.loadGamesFile("/missing.csv").isEmpty());
+    }
+
+    @Test
+    public void testQuotedFieldsAndLineBreaks(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("games.csv");
+        Files.writeString(file, HEADER + "\r\n"
+                + "\"Catan, Junior\",1,\"a,b\",2,4,30,60,1.5,10,7.5,2007\r\n"
+                + "\"The \"\"Game\"\"\",2,\"two\nlines\",1,5,10,20,2.0,5,7.9,2015\n"
+                + "Exponent,3,x,1,2,10,20,2.5e0,7,+7.25,2016");
+        GameStore store = GamesLoader.loadStore(file);
+        assertEquals(3, store.size());
+        assertEquals("Catan, Junior", store.getName(0));
+        assertEquals(2007, store.get(0).getYearPublished());
+        assertEquals("The \"Game\"", store.getName(1));
+        assertEquals(20, store.get(1).getMaxPlayTime());
+        assertEquals(2.5, store.get(2).getDifficulty());
+        assertEquals(7.25, store.get(2).getRating());
+    }
+
+    @Test
+    public void testParsesGeneratedCatalogueExactly(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("games.csv");
+        new CatalogueGenerator(3).write(file, 20_000);
+        List<String> lines = Files.readAllLines(file);
+        Map<GameData, Integer> columns = new EnumMap<>(GameData.class);
+        String[] header = lines.get(0).split(",");
+        for (int i = 0; i < header.length; i++) {
+            for (GameData column : GameData.values()) {
+                if (column.getColumnName().equals(header[i])) {
+                    columns.put(column, i);
+                }
+            }
+        }
+        GameStore store = GamesLoader.loadStore(file);
+        assertEquals(lines.size() - 1, store.size());
+        for (int row = 0; row < store.size(); row++) {
+            String[] fields = lines.get(row + 1).split(",");
+            BoardGame game = store.get(row);
+            assertEquals(fields[columns.get(GameData.NAME)], game.getName());
+            assertEquals(Integer.parseInt(fields[columns.get(GameData.ID)]), game.getId());
+            assertEquals(Integer.parseInt(fields[columns.get(GameData.MIN_TIME)]),
+                    game.getMinPlayTime());
+            assertEquals(Double.parseDouble(fields[columns.get(GameData.RATING)]),
+                    game.getRating());
+            assertEquals(Double.parseDouble(fields[columns.get(GameData.DIFFICULTY)]),
+                    game.getDifficulty());
+        }
+    }
+
+    @Test
+    public void testParallelLoadMatchesSequential(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("games.csv");
+        new CatalogueGenerator(5).write(file, 20_000);
+        // repeat some games at the end of the file, across part boundaries
+        List<String> lines = Files.readAllLines(file);
+        List<String> repeated = new ArrayList<>(lines);
+        for (int i = 1; i < lines.size(); i += 7) {
+            repeated.add(lines.get(i));
+        }
+        Files.write(file, repeated);
+
+        GameStore sequential = GamesLoader.loadStore(file);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            GameStore parallel = GamesLoader.loadStore(file, pool);
+            assertEquals(20_000, parallel.size());
+            assertEquals(sequential.size(), parallel.size());
+            for (int row = 0; row < sequential.size(); row++) {
+                assertEquals(sequential.get(row), parallel.get(row));
+                assertEquals(sequential.get(row).getRank(), parallel.get(row).getRank());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelLoadWithLineBreaksInQuotes(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("games.csv");
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        for (int i = 0; i < 2_000; i++) {
+            // long quoted fields full of line breaks, so part boundaries fall inside them
+            lines.add("Game " + i + "," + i + ",\"" + "x\n".repeat(100) + "\",2,4,30,60,1.5,"
+                    + i + ",7.5,2000");
+        }
+        Files.write(file, lines);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            GameStore store = GamesLoader.loadStore(file, pool);
+            assertEquals(2_000, store.size());
+            for (int row = 0; row < store.size(); row++) {
+                assertEquals("Game " + row, store.getName(row));
+                assertEquals(row, store.getId(row));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import student.BoardGame;
+import student.FilterCompiler;
+import student.FilterCondition;
+import student.GameStore;
+import student.Planner;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test for the NameIndex class.
+ */
+public class NameIndexTest {
+    private static Set<BoardGame> games;
+    private static GameStore store;
+
+    @BeforeAll
+    public static void setup() {
+        games = Set.of(
+                new BoardGame("17 days", 6, 1, 8, 70, 70, 9.0, 600, 9.0, 2005),
+                new BoardGame("Chess", 7, 2, 2, 10, 20, 10.0, 700, 10.0, 2006),
+                new BoardGame("Go", 1, 2, 5, 30, 30, 8.0, 100, 7.5, 2000),
+                new BoardGame("Go Fish", 2, 2, 10, 20, 120, 3.0, 200, 6.5, 2001),
+                new BoardGame("golang", 4, 2, 7, 50, 55, 7.0, 400, 9.5, 2003),
+                new BoardGame("GoRami", 3, 6, 6, 40, 42, 5.0, 300, 8.5, 2002),
+                new BoardGame("GO", 9, 2, 5, 30, 30, 8.0, 100, 7.5, 2000),
+                new BoardGame("Monopoly", 8, 6, 10, 20, 1000, 1.0, 800, 5.0, 2007),
+                new BoardGame("Tucano", 5, 10, 20, 60, 90, 6.0, 500, 8.0, 2004));
+        store = GameStore.of(games);
+    }
+
+    @Test
+    public void testMatchesScan() {
+        String[] operators = {"==", "!=", "<", "<=", ">", ">="};
+        String[] values = {"go", "GO FISH", "a", "zzz", "gol", "monopoly", "17 days"};
+        for (String op : operators) {
+            for (String value : values) {
+                FilterCondition condition = FilterCompiler.compile("name" + op + value)
+                        .getConditions().get(0);
+                BitSet expected = new BitSet();
+                for (int row = 0; row < store.size(); row++) {
+                    if (condition.testString(store.getName(row))) {
+                        expected.set(row);
+                    }
+                }
+                BitSet selected = new BitSet();
+                store.nameIndex().select(condition, selected);
+                assertEquals(expected, selected, condition.toString());
+                assertEquals(expected.cardinality(), store.nameIndex().count(condition));
+
+                BitSet refined = new BitSet();
+                refined.set(0, store.size());
+                store.nameIndex().refine(condition, refined);
+                assertEquals(expected, refined, condition.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testComplete() {
+        List<String> names = store.nameIndex().complete("go", 10);
+        assertEquals(5, names.size());
+        assertTrue(names.get(0).equalsIgnoreCase("go"));
+        assertTrue(names.get(1).equalsIgnoreCase("go"));
+        assertEquals(List.of("Go Fish", "golang", "GoRami"), names.subList(2, 5));
+        assertEquals(2, store.nameIndex().complete("GO", 2).size());
+        assertEquals(List.of(), store.nameIndex().complete("x", 10));
+        assertEquals(9, store.nameIndex().complete("", 20).size());
+    }
+
+    @Test
+    public void testPlannerComplete() {
+        Planner planner = new Planner(games);
+        assertEquals(List.of("Tucano"), planner.complete(" tu", 10));
+        assertEquals(0, planner.complete("go", 0).size());
+        assertThrows(IllegalArgumentException.class, () -> planner.complete("go", -1));
+        assertThrows(IllegalArgumentException.class, () -> planner.complete(null, 1));
+    }
+}
@@ -0,0 +1,82 @@
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import student.BoardGame;
+import student.CompiledFilter;
+import student.FilterCompiler;
+import student.GameData;
+import student.GamesLoader;
+import student.Planner;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks that steady state filtering with {@link Planner#filterInto} does not allocate.
+ */
+public class PlannerAllocationTest {
+    /** Calls measured for each filter. */
+    private static final int CALLS = 2_000;
+    /** Average bytes allowed per call, leaving room for measurement noise. */
+    private static final long MAX_BYTES_PER_CALL = 16;
+
+    private static Planner planner;
+
+    @BeforeAll
+    public static void setup() {
+        planner = new Planner(GamesLoader.loadGamesFile("/collection.csv"));
+    }
+
+    /**
+     * Get the bytes allocated so far by the current thread.
+     *
+     * @return the bytes, or -1 if the JVM cannot measure them
+     */
+    private static long allocatedBytes() {
+        if (!(ManagementFactory.getThreadMXBean()
+                instanceof com.sun.management.ThreadMXBean bean)
+                || !bean.isThreadAllocatedMemorySupported()) {
+            return -1;
+        }
+        return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    @Test
+    public void testFilterIntoDoesNotAllocate() {
+        assumeTrue(allocatedBytes() >= 0, "thread allocation counting not supported");
+        String[] filters = {"minPlayers>=2, maxPlayers<=5", "name~=the", "name~=a, rating>7",
+            "name>=t, name<u", "name!=catan", "rank<100", "difficulty>=3.5", ""};
+        List<BoardGame> out = new ArrayList<>(planner.getStore().size());
+        for (String text : filters) {
+            CompiledFilter filter = FilterCompiler.compile(text);
+            for (GameData sortOn : new GameData[] {GameData.NAME, GameData.RATING}) {
+                for (int i = 0; i < CALLS; i++) { // warm up, and size the buffers
+                    out.clear();
+                    planner.filterInto(filter, sortOn, false, out);
+                }
+                int expected = out.size();
+                long before = allocatedBytes();
+                for (int i = 0; i < CALLS; i++) {
+                    out.clear();
+                    planner.filterInto(filter, sortOn, false, out);
+                }
+                long perCall = (allocatedBytes() - before) / CALLS;
+                assertEquals(expected, out.size());
+                assertTrue(perCall <= MAX_BYTES_PER_CALL,
+                        text + " sort " + sortOn + " allocated " + perCall + " bytes per call");
+            }
+        }
+    }
+
+    @Test
+    public void testFilterIntoMatchesFilter() {
+        CompiledFilter filter = FilterCompiler.compile("name~=a, minPlayers>=3");
+        List<BoardGame> out = new ArrayList<>();
+        int count = planner.filterInto(filter, GameData.YEAR, true, out);
+        assertEquals(planner.filter("name~=a, minPlayers>=3", GameData.YEAR, true).toList(), out);
+        assertEquals(out.size(), count);
+    }
+}
@@ -0,0 +1,159 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import student.BoardGame;
+import student.CatalogueGenerator;
+import student.GameData;
+import student.GameStore;
+import student.Planner;
+import student.PlannerServer;
+import student.PlannerService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test for PlannerServer, over real HTTP on a free local port.
+ */
+public class PlannerServerTest {
+
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private GameStore store;
+    private PlannerServer server;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        store = GameStore.of(new CatalogueGenerator(5).stream(1_000).toList());
+        server = new PlannerServer(new PlannerService(store), 0, 64);
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private HttpResponse<String> send(String method, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + server.getPort() + path))
+                .method(method, HttpRequest.BodyPublishers.noBody()).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String encode(String text) {
+        return URLEncoder.encode(text, StandardCharsets.UTF_8);
+    }
+
+    private static List<Integer> ids(String json) {
+        List<Integer> ids = new ArrayList<>();
+        Matcher matcher = ID.matcher(json);
+        while (matcher.find()) {
+            ids.add(Integer.parseInt(matcher.group(1)));
+        }
+        return ids;
+    }
+
+    @Test
+    public void testStatelessFilter() throws Exception {
+        Planner planner = new Planner(store, 0);
+        HttpResponse<String> response = send("GET", "/filter?q=" + encode("minPlayers>2")
+                + "&sort=rating&order=desc&offset=5&limit=20");
+        assertEquals(200, response.statusCode());
+        assertEquals(planner.filter("minPlayers>2", GameData.RATING, false, 5, 20)
+                .map(BoardGame::getId).toList(), ids(response.body()));
+
+        response = send("GET", "/complete?q=" + encode(store.get(0).getName().substring(0, 2)));
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().startsWith("[\""));
+    }
+
+    @Test
+    public void testSession() throws Exception {
+        HttpResponse<String> opened = send("POST", "/sessions");
+        assertEquals(201, opened.statusCode());
+        String id = opened.body().replaceAll(".*\"session\":\"([^\"]+)\".*", "$1");
+        String session = "/sessions/" + id;
+        Planner planner = new Planner(store, 0);
+
+        HttpResponse<String> first = send("POST", session + "/filter?q=" + encode("minPlayers>2")
+                + "&limit=1000");
+        assertEquals(planner.filter("minPlayers>2").map(BoardGame::getId).toList(),
+                ids(first.body()));
+        // progressive, the second filter narrows the first
+        HttpResponse<String> second = send("POST", session + "/filter?q=" + encode("rating>7")
+                + "&limit=1000");
+        assertEquals(planner.filter("minPlayers>2,rating>7").map(BoardGame::getId)
+                .toList(), ids(second.body()));
+
+        assertEquals(200, send("POST", session + "/list/add?q=1-2").statusCode());
+        List<String> expected = planner.filter("minPlayers>2,rating>7").limit(2)
+                .map(BoardGame::getName).sorted(String.CASE_INSENSITIVE_ORDER).toList();
+        HttpResponse<String> saved = send("GET", session + "/list/save");
+        assertEquals(String.join("\n", expected), saved.body());
+        assertEquals(200, send("POST", session + "/list/remove?q=1").statusCode());
+        assertEquals(1, send("GET", session + "/list").body().split("\",\"").length);
+
+        assertEquals(204, send("POST", session + "/reset").statusCode());
+        assertEquals(planner.filter("").limit(100).map(BoardGame::getId).toList(),
+                ids(send("POST", session + "/filter").body()));
+        // reading a session's games must not go through a request that changes it
+        assertEquals(404, send("GET", session + "/filter").statusCode());
+
+        assertEquals(204, send("DELETE", session).statusCode());
+        assertEquals(404, send("POST", session + "/filter").statusCode());
+        assertEquals(0, server.getService().size());
+    }
+
+    @Test
+    public void testBadRequests() throws Exception {
+        assertEquals(400, send("GET", "/filter?sort=bogus").statusCode());
+        assertEquals(400, send("GET", "/filter?order=up").statusCode());
+        assertEquals(400, send("GET", "/filter?limit=many").statusCode());
+        assertEquals(400, send("GET", "/filter?limit=-1").statusCode());
+        assertEquals(404, send("GET", "/nothing").statusCode());
+        assertEquals(404, send("POST", "/sessions/unknown/filter").statusCode());
+        HttpResponse<String> opened = send("POST", "/sessions");
+        String id = opened.body().replaceAll(".*\"session\":\"([^\"]+)\".*", "$1");
+        assertEquals(400, send("POST", "/sessions/" + id + "/list/add?q=").statusCode());
+        assertEquals(404, send("GET", "/sessions/" + id + "/bogus").statusCode());
+    }
+
+    @Test
+    public void testBusyServerTurnsRequestsAway() throws Exception {
+        server.stop(0);
+        server = new PlannerServer(new PlannerService(store), 0, 1);
+        server.start();
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            responses.add(client.sendAsync(HttpRequest.newBuilder(URI.create("http://localhost:"
+                    + server.getPort() + "/filter?q=" + encode("name~=a"))).build(),
+                    HttpResponse.BodyHandlers.ofString()));
+        }
+        int busy = 0;
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            int status = response.get().statusCode();
+            assertTrue(status == 200 || status == 503, "status " + status);
+            if (status == 503) {
+                busy++;
+                assertEquals("1", response.get().headers().firstValue("Retry-After")
+                        .orElseThrow());
+            }
+        }
+        assertEquals(busy, server.getRejected());
+        assertEquals(200, send("GET", "/filter").statusCode());
+    }
+}
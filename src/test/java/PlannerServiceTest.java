@@ -0,0 +1,209 @@
+import org.junit.jupiter.api.Test;
+import student.BoardGame;
+import student.CatalogueGenerator;
+import student.CatalogueUpdate;
+import student.CatalogueVersion;
+import student.GameData;
+import student.GameStore;
+import student.Planner;
+import student.PlannerService;
+import student.PlannerSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test for PlannerService and its sessions, alone and under many concurrent users.
+ */
+public class PlannerServiceTest {
+
+    private static final String[] FILTERS = {
+        "", "minPlayers>2", "name~=the", "rating>7,difficulty<3", "year>=2000,maxPlayers<=4",
+        "maxPlaytime>100", "name~=a,minPlayers>=3", "rating>9"
+    };
+
+    private static final GameData[] SORTS = {GameData.NAME, GameData.RATING, GameData.YEAR};
+
+    @Test
+    public void testSessionsKeepTheirOwnState() {
+        PlannerService service = new PlannerService(
+                GameStore.of(new CatalogueGenerator(1).stream(500).toList()));
+        PlannerSession first = service.open();
+        PlannerSession second = service.open();
+        assertEquals(2, service.size());
+        assertNotEquals(first.getId(), second.getId());
+        assertSame(first, service.get(first.getId()));
+        assertNull(first.getVersion());
+
+        int many = (int) first.filter("").count();
+        int few = (int) second.filter("rating>8").count();
+        assertEquals(500, many);
+        assertTrue(few < many);
+        assertEquals(many, first.getSelectionSize());
+        assertEquals(few, second.getSelectionSize());
+        assertEquals(1, first.getVersion().getNumber());
+
+        first.addToList("1-3", first.filter("", GameData.NAME, true));
+        assertEquals(3, first.count());
+        assertEquals(0, second.count());
+
+        first.reset();
+        assertNull(first.getVersion());
+        assertEquals(0, first.getSelectionSize());
+        assertEquals(3, first.count());
+        assertEquals(few, second.getSelectionSize());
+
+        assertTrue(service.close(first.getId()));
+        assertFalse(service.close(first.getId()));
+        assertThrows(IllegalArgumentException.class, () -> service.get(first.getId()));
+        assertEquals(1, service.closeIdle(0, TimeUnit.NANOSECONDS));
+        assertEquals(0, service.size());
+    }
+
+    @Test
+    public void testSessionPagingMatchesPlanner() {
+        GameStore store = GameStore.of(new CatalogueGenerator(2).stream(300).toList());
+        Planner planner = new Planner(store, 0);
+        PlannerSession session = new PlannerService(store).open();
+
+        assertEquals(planner.filter("minPlayers>2", GameData.YEAR, false, 10, 20).toList(),
+                session.filter("minPlayers>2", GameData.YEAR, false, 10, 20).toList());
+        assertEquals(planner.page("minPlayers>2", GameData.RATING, true, 25, null).getGames(),
+                session.page("minPlayers>2", GameData.RATING, true, 25, null).getGames());
+        // a stream is lazy, but keeps the games of its own call
+        Stream<BoardGame> all = session.filter("", GameData.YEAR, false);
+        session.filter("rating>8");
+        assertEquals(planner.filter("minPlayers>2", GameData.YEAR, false).toList(), all.toList());
+        assertThrows(IllegalArgumentException.class,
+                () -> session.filter("", GameData.NAME, true, -1, 5));
+        assertThrows(IllegalArgumentException.class,
+                () -> session.page("", GameData.NAME, true, 0, null));
+    }
+
+    @Test
+    public void testFiltersAreProgressive() {
+        GameStore store = GameStore.of(new CatalogueGenerator(3).stream(1_000).toList());
+        Planner planner = new Planner(store, 0);
+        PlannerService service = new PlannerService(store);
+        PlannerSession session = service.open();
+
+        assertEquals(planner.filter("minPlayers>=2").toList(),
+                session.filter("minPlayers>=2").toList());
+        assertEquals(planner.filter("minPlayers>=2,rating>7", GameData.RATING).toList(),
+                session.filter("rating>7", GameData.RATING).toList());
+        // a repeated condition changes nothing, a new one narrows further
+        assertEquals(planner.filter("minPlayers>=2,rating>7,name~=a", GameData.YEAR).toList(),
+                session.filter("rating>7, name~=a", GameData.YEAR).toList());
+        assertEquals(3, session.getFilter().getConditions().size());
+        assertEquals(planner.filter("minPlayers>=2,rating>7,name~=a").toList(),
+                session.filter("").toList());
+
+        // once the catalogue changes the conditions run again on the new games
+        service.getPlanner().apply(new CatalogueUpdate().delete(
+                session.filter("").findFirst().orElseThrow().getId()));
+        Planner updated = new Planner(service.getPlanner().getStore(), 0);
+        assertEquals(updated.filter("minPlayers>=2,rating>7,name~=a,year>2000").toList(),
+                session.filter("year>2000").toList());
+        assertEquals(2, session.getVersion().getNumber());
+
+        session.reset();
+        assertTrue(session.getFilter().isEmpty());
+        assertEquals(updated.filter("minPlayers<2").toList(),
+                session.filter("minPlayers<2").toList());
+        assertEquals(List.of(), session.filter("rating>11").toList());
+        assertEquals(List.of(), session.filter("").toList());
+    }
+
+    /**
+     * Hundreds of sessions filter at once while the catalogue keeps being replaced. Every result
+     * must be exactly what a planner on its own would give for the session's filters on one
+     * version, the version the session reports, and a session must never see an older version
+     * than it has seen before.
+     */
+    @Test
+    public void testConcurrentSessionsAreLinearizable() throws Exception {
+        int versions = 4;
+        List<GameStore> stores = new ArrayList<>();
+        List<Planner> references = new ArrayList<>();
+        for (int v = 0; v < versions; v++) {
+            GameStore store = GameStore.of(new CatalogueGenerator(100 + v).stream(2_000).toList());
+            stores.add(store);
+            references.add(new Planner(store, 0));
+        }
+
+        PlannerService service = new PlannerService(stores.get(0));
+        service.getPlanner().setParallelThreshold(1_000);
+        int sessions = 300;
+        int callsPerSession = 40;
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        AtomicBoolean done = new AtomicBoolean();
+        ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+
+        Thread writer = new Thread(() -> {
+            for (int n = 1; !done.get(); n++) {
+                service.getPlanner().publish(stores.get(n % versions));
+                Thread.onSpinWait();
+            }
+        });
+        writer.start();
+
+        List<Future<?>> users = new ArrayList<>();
+        for (int s = 0; s < sessions; s++) {
+            long seed = s;
+            users.add(pool.submit(() -> {
+                Random random = new Random(seed);
+                PlannerSession session = service.open();
+                List<String> filters = new ArrayList<>();
+                long lastSeen = 0;
+                for (int call = 0; call < callsPerSession; call++) {
+                    if (random.nextInt(3) == 0) {
+                        session.reset();
+                        filters.clear();
+                    }
+                    String filter = FILTERS[random.nextInt(FILTERS.length)];
+                    GameData sort = SORTS[random.nextInt(SORTS.length)];
+                    filters.add(filter);
+                    List<BoardGame> result = session.filter(filter, sort).toList();
+                    CatalogueVersion version = session.getVersion();
+                    Planner reference = references.get(
+                            (int) ((version.getNumber() - 1) % versions));
+                    if (!result.equals(reference.filter(String.join(",", filters), sort)
+                            .toList())) {
+                        failures.add("session " + seed + " got a wrong result for " + filters
+                                + " on version " + version.getNumber());
+                    }
+                    if (version.getNumber() < lastSeen) {
+                        failures.add("session " + seed + " went back to version "
+                                + version.getNumber() + " from " + lastSeen);
+                    }
+                    lastSeen = version.getNumber();
+                    if (session.getSelectionSize() != result.size()) {
+                        failures.add("session " + seed + " kept the wrong selection");
+                    }
+                }
+                service.close(session.getId());
+            }));
+        }
+        for (Future<?> user : users) {
+            user.get(2, TimeUnit.MINUTES);
+        }
+        done.set(true);
+        writer.join();
+        pool.shutdown();
+
+        assertTrue(failures.isEmpty(), () -> failures.size() + " failures, first: "
+                + failures.peek());
+        assertEquals(0, service.size());
+        assertTrue(service.getPlanner().getVersion().getNumber() > 1);
+    }
+}
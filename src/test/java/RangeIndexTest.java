@@ -0,0 +1,80 @@
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import student.BoardGame;
+import student.FilterCompiler;
+import student.FilterCondition;
+import student.GameData;
+import student.GameStore;
+import student.Operations;
+import student.RangeIndex;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test for the RangeIndex class.
+ */
+public class RangeIndexTest {
+    private static List<BoardGame> games;
+    private static GameStore store;
+
+    @BeforeAll
+    public static void setup() {
+        games = List.of(
+                new BoardGame("17 days", 6, 1, 8, 70, 70, 9.0, 600, 9.0, 2005),
+                new BoardGame("Chess", 7, 2, 2, 10, 20, 10.0, 700, 10.0, 2006),
+                new BoardGame("Go", 1, 2, 5, 30, 30, 8.0, 100, 7.5, 2000),
+                new BoardGame("Go Fish", 2, 2, 10, 20, 120, 3.0, 200, 6.5, 2001),
+                new BoardGame("golang", 4, 2, 7, 50, 55, 7.0, 400, 9.5, 2003),
+                new BoardGame("GoRami", 3, 6, 6, 40, 42, 5.0, 300, 8.5, 2002),
+                new BoardGame("Monopoly", 8, 6, 10, 20, 1000, 1.0, 800, 5.0, 2007),
+                new BoardGame("Tucano", 5, 10, 20, 60, 90, 6.0, 500, 8.0, 2004));
+        store = GameStore.of(games);
+    }
+
+    @Test
+    public void testMatchesScanForEveryOperator() {
+        String[] operands = {"0", "2", "5", "6", "7.5", "7.5004", "20", "2004", "9999"};
+        for (GameData column : GameData.values()) {
+            RangeIndex index = store.rangeIndex(column);
+            if (index == null) {
+                continue;
+            }
+            for (Operations op : Operations.values()) {
+                if (op == Operations.CONTAINS) {
+                    continue;
+                }
+                for (String operand : operands) {
+                    String filter = column.getColumnName() + op.getOperator() + operand;
+                    FilterCondition condition = FilterCompiler.compile(filter).getConditions().get(0);
+                    BitSet expected = new BitSet();
+                    for (int row = 0; row < store.size(); row++) {
+                        if (condition.test(store.get(row))) {
+                            expected.set(row);
+                        }
+                    }
+                    BitSet actual = new BitSet();
+                    index.select(condition, actual);
+                    assertEquals(expected, actual, filter);
+                    assertEquals(expected.cardinality(), index.count(condition), filter);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testNoIndexForName() {
+        assertNull(store.rangeIndex(GameData.NAME));
+        assertNull(store.rangeIndex(GameData.ID));
+    }
+
+    @Test
+    public void testSelectWithSeed() {
+        BitSet rows = new BitSet();
+        store.select(FilterCompiler.compile("maxPlayers>=2, year==2001, name~=fish"), rows);
+        assertEquals(1, rows.cardinality());
+        assertTrue(rows.get(3));
+    }
+}
@@ -0,0 +1,124 @@
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import student.BoardGame;
+import student.GameData;
+import student.GameSorter;
+import student.GameStore;
+import student.SortIndex;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.PrimitiveIterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test for the SortIndex class.
+ */
+public class SortIndexTest {
+    private static List<BoardGame> games;
+    private static GameStore store;
+
+    @BeforeAll
+    public static void setup() {
+        games = List.of(
+                new BoardGame("17 days", 6, 1, 8, 70, 70, 9.0, 600, 9.0, 2005),
+                new BoardGame("Chess", 7, 2, 2, 10, 20, 10.0, 700, 10.0, 2006),
+                new BoardGame("Go", 1, 2, 5, 30, 30, 8.0, 100, 7.5, 2000),
+                new BoardGame("Go Fish", 2, 2, 10, 20, 120, 3.0, 200, 6.5, 2001),
+                new BoardGame("golang", 4, 2, 7, 50, 55, 7.0, 400, 9.5, 2003),
+                new BoardGame("GoRami", 3, 6, 6, 40, 42, 5.0, 300, 8.5, 2002),
+                new BoardGame("Monopoly", 8, 6, 10, 20, 1000, 1.0, 800, 5.0, 2007),
+                new BoardGame("Tucano", 5, 10, 20, 60, 90, 6.0, 500, 8.0, 2004));
+        store = GameStore.of(games);
+    }
+
+    @Test
+    public void testMatchesGameSorterForEveryColumn() {
+        BitSet all = new BitSet();
+        all.set(0, store.size());
+        for (GameData column : GameData.values()) {
+            for (boolean ascending : new boolean[] {true, false}) {
+                List<BoardGame> expected = new ArrayList<>(games);
+                expected.sort(GameSorter.sortFilteredGames(column, ascending));
+                List<BoardGame> actual = store.get(store.sortIndex(column).sortedRows(all, ascending));
+                assertEquals(expected, actual, column + " ascending=" + ascending);
+            }
+        }
+    }
+
+    @Test
+    public void testSortedRowsOfSelection() {
+        BitSet rows = new BitSet();
+        rows.set(1); // Chess
+        rows.set(6); // Monopoly
+        SortIndex index = store.sortIndex(GameData.MAX_TIME);
+        assertArrayEquals(new int[] {1, 6}, index.sortedRows(rows, true));
+        assertArrayEquals(new int[] {6, 1}, index.sortedRows(rows, false));
+        assertEquals(0, index.sortedRows(new BitSet(), true).length);
+    }
+
+    @Test
+    public void testPositions() {
+        SortIndex index = store.sortIndex(GameData.RANK);
+        assertEquals(2, index.rowAt(0)); // Go has the lowest rank
+        for (int row = 0; row < store.size(); row++) {
+            assertEquals(row, index.rowAt(index.positionOf(row)));
+        }
+    }
+
+    @Test
+    public void testIteratorMatchesSortedRows() {
+        BitSet all = new BitSet();
+        all.set(0, store.size());
+        BitSet one = new BitSet();
+        one.set(3);
+        for (BitSet rows : new BitSet[] {all, one, new BitSet()}) {
+            for (GameData column : GameData.values()) {
+                for (boolean ascending : new boolean[] {true, false}) {
+                    SortIndex index = store.sortIndex(column);
+                    PrimitiveIterator.OfInt iterator = index.iterator(rows, ascending);
+                    for (int row : index.sortedRows(rows, ascending)) {
+                        assertTrue(iterator.hasNext());
+                        assertEquals(row, iterator.nextInt());
+                    }
+                    assertFalse(iterator.hasNext());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testIteratorAfterRow() {
+        GameStore.Builder builder = new GameStore.Builder();
+        for (int i = 0; i < 200; i++) {
+            builder.add("game " + (i * 7919 % 200), i, 1, 4, 30, 60, 2.0, i % 13, 7.0, 2000);
+        }
+        GameStore large = builder.build();
+        SortIndex index = large.sortIndex(GameData.RANK);
+        BitSet small = new BitSet();
+        small.set(5);
+        small.set(17);
+        BitSet big = new BitSet();
+        big.set(0, 150);
+        for (BitSet rows : new BitSet[] {small, big}) {
+            for (boolean ascending : new boolean[] {true, false}) {
+                int[] sorted = index.sortedRows(rows, ascending);
+                for (int after : new int[] {3, 5, 17, 199}) {
+                    List<Integer> expected = new ArrayList<>();
+                    for (int row : sorted) {
+                        int diff = index.positionOf(row) - index.positionOf(after);
+                        if (ascending ? diff > 0 : diff < 0) {
+                            expected.add(row);
+                        }
+                    }
+                    List<Integer> actual = new ArrayList<>();
+                    index.iterator(rows, ascending, after)
+                            .forEachRemaining((int row) -> actual.add(row));
+                    assertEquals(expected, actual, "after " + after);
+                }
+            }
+        }
+    }
+}
@@ -2,11 +2,15 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import student.BoardGame;
 import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 import student.Planner;
+import student.CatalogueUpdate;
 import student.IPlanner;
+import student.Page;
 import student.GameData;
 
 
@@ -185,4 +189,89 @@ public class TestPlanner {
         List<BoardGame> filtered = planner.filter("invalid filter").toList();
         assertEquals(games.size(), filtered.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFilterOffsetLimit() {
+        IPlanner planner = new Planner(games);
+        List<BoardGame> all = planner.filter("minPlayers>=2", GameData.RATING, false).toList();
+        Planner uncached = new Planner(games, 0);
+        for (int offset = 0; offset <= all.size() + 1; offset++) {
+            for (int limit = 0; limit <= 3; limit++) {
+                List<BoardGame> expected = all.subList(Math.min(offset, all.size()),
+                        Math.min(offset + limit, all.size()));
+                assertEquals(expected, planner.filter("minPlayers>=2", GameData.RATING, false,
+                        offset, limit).toList());
+                assertEquals(expected, uncached.filter("minPlayers>=2", GameData.RATING, false,
+                        offset, limit).toList());
+            }
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> planner.filter("", GameData.NAME, true, -1, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> planner.filter("", GameData.NAME, true, 0, -1));
+    }
+
+    @Test
+    public void testLimitedStreamOutlivesNextFilter() {
+        Planner planner = new Planner(games, 0);
+        Stream<BoardGame> top = planner.filter("", GameData.RANK, true, 0, 2);
+        planner.filter("name==Chess").toList();
+        assertEquals(List.of("Go", "Go Fish"), top.map(BoardGame::getName).toList());
+    }
+
+    @Test
+    public void testPagesCoverWholeResult() {
+        IPlanner planner = new Planner(games);
+        for (GameData column : GameData.values()) {
+            for (boolean ascending : new boolean[] {true, false}) {
+                List<BoardGame> expected = planner.filter("maxPlayers>2", column, ascending)
+                        .toList();
+                List<BoardGame> paged = new ArrayList<>();
+                String cursor = null;
+                do {
+                    Page page = planner.page("maxPlayers>2", column, ascending, 3, cursor);
+                    assertTrue(page.getGames().size() <= 3);
+                    paged.addAll(page.getGames());
+                    cursor = page.getNextCursor();
+                } while (cursor != null);
+                assertEquals(expected, paged, column + " ascending=" + ascending);
+            }
+        }
+    }
+
+    @Test
+    public void testPageCursorErrors() {
+        IPlanner planner = new Planner(games);
+        String cursor = planner.page("", GameData.RANK, true, 2, null).getNextCursor();
+        assertNotNull(cursor);
+        assertEquals(List.of("GoRami", "golang"), planner.page("", GameData.RANK, true, 2, cursor)
+                .getGames().stream().map(BoardGame::getName).toList());
+        assertThrows(IllegalArgumentException.class,
+                () -> planner.page("", GameData.RANK, false, 2, cursor));
+        assertThrows(IllegalArgumentException.class,
+                () -> planner.page("", GameData.RANK, true, 2, "not a cursor"));
+        assertThrows(IllegalArgumentException.class,
+                () -> planner.page("", GameData.RANK, true, 0, null));
+        IPlanner other = new Planner(Set.of(new BoardGame("Chess", 7, 2, 2, 10, 20, 10.0, 700,
+                10.0, 2006)));
+        // a cursor goes on from where its game sorts, whatever the collection
+        assertEquals(List.of("Chess"), other.page("", GameData.RANK, true, 2, cursor).getGames()
+                .stream().map(BoardGame::getName).toList());
+    }
+
+    @Test
+    public void testPageCursorOutlivesItsGame() {
+        Planner planner = new Planner(games);
+        String cursor = planner.page("", GameData.RANK, true, 2, null).getNextCursor();
+        planner.apply(new CatalogueUpdate().delete(2)); // Go Fish, the last game of the page
+        assertEquals(List.of("GoRami", "golang"), planner.page("", GameData.RANK, true, 2, cursor)
+                .getGames().stream().map(BoardGame::getName).toList());
+
+        cursor = planner.page("", GameData.RANK, false, 3, null).getNextCursor();
+        // 17 days moves to the front, the next page still starts after where it was
+        planner.apply(new CatalogueUpdate().upsert(new BoardGame("17 days", 6, 1, 8, 70, 70, 9.0,
+                50, 9.0, 2005)));
+        assertEquals(List.of("Tucano", "golang", "GoRami"), planner.page("", GameData.RANK, false,
+                3, cursor).getGames().stream().map(BoardGame::getName).toList());
+    }
+}
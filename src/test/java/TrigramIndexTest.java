@@ -0,0 +1,72 @@
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import student.BoardGame;
+import student.GameStore;
+import student.TrigramIndex;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test for the TrigramIndex class.
+ */
+public class TrigramIndexTest {
+    private static GameStore store;
+
+    @BeforeAll
+    public static void setup() {
+        store = GameStore.of(List.of(
+                new BoardGame("17 days", 6, 1, 8, 70, 70, 9.0, 600, 9.0, 2005),
+                new BoardGame("Chess", 7, 2, 2, 10, 20, 10.0, 700, 10.0, 2006),
+                new BoardGame("Go", 1, 2, 5, 30, 30, 8.0, 100, 7.5, 2000),
+                new BoardGame("Go Fish", 2, 2, 10, 20, 120, 3.0, 200, 6.5, 2001),
+                new BoardGame("golang", 4, 2, 7, 50, 55, 7.0, 400, 9.5, 2003),
+                new BoardGame("GoRami", 3, 6, 6, 40, 42, 5.0, 300, 8.5, 2002),
+                new BoardGame("Monopoly", 8, 6, 10, 20, 1000, 1.0, 800, 5.0, 2007),
+                new BoardGame("Tucano", 5, 10, 20, 60, 90, 6.0, 500, 8.0, 2004)));
+    }
+
+    private static BitSet refine(String text) {
+        BitSet rows = new BitSet();
+        rows.set(0, store.size());
+        store.trigramIndex().refine(text, rows);
+        return rows;
+    }
+
+    private static BitSet scan(String text) {
+        BitSet rows = new BitSet();
+        for (int row = 0; row < store.size(); row++) {
+            if (store.getLowerName(row).contains(text)) {
+                rows.set(row);
+            }
+        }
+        return rows;
+    }
+
+    @Test
+    public void testMatchesScan() {
+        for (String text : new String[] {"go", "gol", "o f", "ess", "nopol", "xyz", "", "o", "ram"}) {
+            assertEquals(scan(text), refine(text), text);
+        }
+    }
+
+    @Test
+    public void testRespectsSelection() {
+        BitSet rows = new BitSet();
+        rows.set(3); // Go Fish
+        rows.set(6); // Monopoly
+        store.trigramIndex().refine("go ", rows);
+        assertEquals(1, rows.cardinality());
+        assertTrue(rows.get(3));
+    }
+
+    @Test
+    public void testEstimate() {
+        TrigramIndex index = store.trigramIndex();
+        assertEquals(-1, index.estimate("go"));
+        assertEquals(0, index.estimate("zzz"));
+        assertTrue(index.estimate("gor") >= 1);
+    }
+}